@@ -5,11 +5,15 @@ import com.eventos.backend.dto.*;
 import com.eventos.backend.dto.catedra.CatedraAsientoDTO;
 import com.eventos.backend.dto.catedra.CatedraBloquearAsientosRequestDTO;
 import com.eventos.backend.dto.catedra.CatedraBloquearAsientosResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyAsientoDTO;
 import com.eventos.backend.dto.proxy.ProxyEstadoAsientoResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
 import com.eventos.backend.domain.exception.BadRequestException;
 import com.eventos.backend.domain.exception.ResourceNotFoundException;
 import com.eventos.backend.infrastructure.adapter.output.external.service.CatedraApiClient;
 import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyClient;
+import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyMapaAsientosCache;
 import com.eventos.backend.application.service.SesionCompraServiceImpl;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,8 +21,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +44,11 @@ public class AsientoServiceImpl {
     private final CatedraApiClient catedraApiClient;
     private final SesionCompraServiceImpl sesionCompraService;
     private final ProxyClient proxyClient;
+    private final ProxyMapaAsientosCache proxyMapaAsientosCache;
+    private final MapaAsientosVersionService versionService;
+    private final PreReservaAsientosService preReservaService;
+    private final BloqueoAsientosExpiracionService bloqueoExpiracionService;
+    private final OcupacionAsientosService ocupacionService;
 
     private static final int MAX_ASIENTOS = 4;
     private static final int BLOQUEO_TIMEOUT_MINUTOS = 5;
@@ -44,63 +59,25 @@ public class AsientoServiceImpl {
     public MapaAsientosDTO obtenerMapaAsientos(Long eventoId) {
         log.info("Obteniendo mapa de asientos para evento: {}", eventoId);
 
-        Evento evento = eventoRepository.findById(eventoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
-
-        if (!evento.getActivo()) {
-            throw new BadRequestException("El evento no está disponible");
-        }
-
+        Evento evento = obtenerEventoActivo(eventoId);
         int totalFilas = evento.getFilaAsientos();
         int totalColumnas = evento.getColumnaAsientos();
         int totalAsientos = totalFilas * totalColumnas;
 
-        // Obtener sesión actual para marcar asientos seleccionados
-        SesionCompraDTO sesionActual = null;
-        try {
-            sesionActual = sesionCompraService.obtenerSesionActual();
-        } catch (Exception e) {
-            log.debug("No hay sesión activa");
-        }
+        // La versión se lee antes que el estado: en el peor caso el cliente luego recibe un cambio repetido
+        Long version = versionService.obtenerVersion(eventoId);
+        String[] estados = new String[totalAsientos];
+        boolean degradado = resolverEstados(evento, version, estados);
 
-        // Generar matriz de asientos
-        List<EstadoAsientoDTO> asientos = new ArrayList<>();
+        // Generar lista de asientos y conteos en una sola pasada
+        List<EstadoAsientoDTO> asientos = new ArrayList<>(totalAsientos);
         int libres = 0;
         int ocupados = 0;
         int bloqueados = 0;
 
         for (int fila = 1; fila <= totalFilas; fila++) {
             for (int col = 1; col <= totalColumnas; col++) {
-                String estado = EstadoAsientoDTO.LIBRE;
-                
-                // Consultar estado real desde Redis de cátedra vía Proxy
-                if (evento.getIdExterno() != null) {
-                    try {
-                        ProxyEstadoAsientoResponseDTO estadoProxy = 
-                                proxyClient.obtenerEstadoAsiento(evento.getIdExterno(), fila, col);
-                        
-                        if (estadoProxy != null && estadoProxy.getEstado() != null) {
-                            // Mapear estados del proxy a estados del frontend
-                            estado = mapearEstadoDeProxy(estadoProxy.getEstado());
-                            log.debug("Estado asiento {}:{} desde proxy: {} -> {}", 
-                                    fila, col, estadoProxy.getEstado(), estado);
-                        }
-                    } catch (Exception e) {
-                        log.warn("Error al consultar estado de asiento {}:{} en proxy, usando LIBRE por defecto", 
-                                fila, col);
-                    }
-                }
-                
-                // Verificar si está seleccionado en sesión actual (tiene prioridad)
-                if (sesionActual != null && sesionActual.getEventoId().equals(eventoId)) {
-                    final int f = fila;
-                    final int c = col;
-                    boolean seleccionado = sesionActual.getAsientosSeleccionados().stream()
-                            .anyMatch(a -> a.getFila().equals(f) && a.getColumna().equals(c));
-                    if (seleccionado) {
-                        estado = EstadoAsientoDTO.SELECCIONADO;
-                    }
-                }
+                String estado = estados[(fila - 1) * totalColumnas + (col - 1)];
 
                 if (estado.equals(EstadoAsientoDTO.LIBRE)) libres++;
                 else if (estado.equals(EstadoAsientoDTO.OCUPADO)) ocupados++;
@@ -116,6 +93,7 @@ public class AsientoServiceImpl {
 
         return MapaAsientosDTO.builder()
                 .eventoId(eventoId)
+                .version(version)
                 .totalFilas(totalFilas)
                 .totalColumnas(totalColumnas)
                 .asientosTotales(totalAsientos)
@@ -123,9 +101,235 @@ public class AsientoServiceImpl {
                 .asientosOcupados(ocupados)
                 .asientosBloqueados(bloqueados)
                 .asientos(asientos)
+                .degradado(degradado)
+                .build();
+    }
+
+    /**
+     * Obtiene los asientos que cambiaron desde una versión del mapa
+     * Si la versión ya no está en el registro de cambios, devuelve el mapa completo
+     *
+     * @param eventoId ID del evento
+     * @param desde Versión del mapa que tiene el cliente
+     */
+    public CambiosAsientosDTO obtenerCambiosAsientos(Long eventoId, Long desde) {
+        log.info("Obteniendo cambios de asientos para evento {} desde versión {}", eventoId, desde);
+
+        Evento evento = obtenerEventoActivo(eventoId);
+
+        MapaAsientosVersionService.CambiosDesdeVersion cambios = versionService.obtenerCambiosDesde(eventoId, desde);
+        if (cambios == null) {
+            log.debug("Versión {} fuera del registro de cambios del evento {}, enviando mapa completo", desde, eventoId);
+            MapaAsientosDTO mapa = obtenerMapaAsientos(eventoId);
+            return CambiosAsientosDTO.builder()
+                    .eventoId(eventoId)
+                    .desde(desde)
+                    .version(mapa.getVersion())
+                    .completo(true)
+                    .mapa(mapa)
+                    .build();
+        }
+
+        // Los asientos seleccionados por la sesión actual se siguen mostrando como seleccionados
+        Set<AsientoSeleccionadoDTO> seleccionados = Set.of();
+        try {
+            SesionCompraDTO sesion = sesionCompraService.obtenerSesionActual();
+            if (sesion != null && eventoId.equals(sesion.getEventoId())
+                    && sesion.getAsientosSeleccionados() != null) {
+                seleccionados = new HashSet<>(sesion.getAsientosSeleccionados());
+            }
+        } catch (Exception e) {
+            log.debug("No hay sesión activa");
+        }
+
+        List<EstadoAsientoDTO> asientos = new ArrayList<>(cambios.getCambios().size());
+        for (MapaAsientosVersionService.AsientoCambiado cambio : cambios.getCambios()) {
+            if (indiceAsiento(cambio.getFila(), cambio.getColumna(),
+                    evento.getFilaAsientos(), evento.getColumnaAsientos()) < 0) {
+                continue;
+            }
+            boolean seleccionado = seleccionados.contains(AsientoSeleccionadoDTO.builder()
+                    .fila(cambio.getFila())
+                    .columna(cambio.getColumna())
+                    .build());
+            asientos.add(EstadoAsientoDTO.builder()
+                    .fila(cambio.getFila())
+                    .columna(cambio.getColumna())
+                    .estado(seleccionado ? EstadoAsientoDTO.SELECCIONADO : mapearEstadoDeProxy(cambio.getEstado()))
+                    .build());
+        }
+
+        return CambiosAsientosDTO.builder()
+                .eventoId(eventoId)
+                .desde(desde)
+                .version(cambios.getVersion())
+                .completo(false)
+                .cambios(asientos)
                 .build();
     }
 
+    /**
+     * Calcula el ETag del mapa de asientos de un evento para el usuario actual
+     * Combina la versión del evento con la selección de la sesión, que también forma parte del mapa.
+     * Solo identifica mapas completos: un mapa degradado (ver {@link MapaAsientosDTO#getDegradado()})
+     * no debe publicarse con este ETag
+     *
+     * @param eventoId ID del evento
+     * @param formato Representación solicitada (cada una tiene su propio ETag)
+     * @return ETag débil o null si la versión no está disponible
+     */
+    public String calcularEtagMapa(Long eventoId, String formato) {
+        Long version = versionService.obtenerVersion(eventoId);
+        if (version == null) {
+            return null;
+        }
+
+        int seleccion = 0;
+        try {
+            SesionCompraDTO sesion = sesionCompraService.obtenerSesionActual();
+            if (sesion != null && eventoId.equals(sesion.getEventoId())
+                    && sesion.getAsientosSeleccionados() != null) {
+                for (AsientoSeleccionadoDTO asiento : sesion.getAsientosSeleccionados()) {
+                    seleccion = 31 * seleccion + asiento.getId().hashCode();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("No hay sesión activa");
+        }
+
+        return "W/\"" + version + "-" + formato + "-" + Integer.toHexString(seleccion) + "\"";
+    }
+
+    /**
+     * Obtiene el mapa de asientos de un evento empaquetado a 2 bits por asiento
+     * Mismo contenido que {@link #obtenerMapaAsientos(Long)}, sin un objeto por asiento
+     */
+    public MapaAsientosCompactoDTO obtenerMapaAsientosCompacto(Long eventoId) {
+        log.info("Obteniendo mapa de asientos compacto para evento: {}", eventoId);
+
+        Evento evento = obtenerEventoActivo(eventoId);
+        int totalFilas = evento.getFilaAsientos();
+        int totalColumnas = evento.getColumnaAsientos();
+        int totalAsientos = totalFilas * totalColumnas;
+
+        // La versión se lee antes que el estado: en el peor caso el cliente luego recibe un cambio repetido
+        Long version = versionService.obtenerVersion(eventoId);
+        String[] estados = new String[totalAsientos];
+        boolean degradado = resolverEstados(evento, version, estados);
+
+        byte[] empaquetado = new byte[(totalAsientos + 3) / 4];
+        int libres = 0;
+        int ocupados = 0;
+        int bloqueados = 0;
+
+        for (int i = 0; i < totalAsientos; i++) {
+            int codigo;
+            switch (estados[i]) {
+                case EstadoAsientoDTO.BLOQUEADO:
+                    codigo = MapaAsientosCompactoDTO.CODIGO_BLOQUEADO;
+                    bloqueados++;
+                    break;
+                case EstadoAsientoDTO.OCUPADO:
+                    codigo = MapaAsientosCompactoDTO.CODIGO_OCUPADO;
+                    ocupados++;
+                    break;
+                case EstadoAsientoDTO.SELECCIONADO:
+                    codigo = MapaAsientosCompactoDTO.CODIGO_SELECCIONADO;
+                    break;
+                default:
+                    codigo = MapaAsientosCompactoDTO.CODIGO_LIBRE;
+                    libres++;
+            }
+            // 4 asientos por byte, el primero en los bits menos significativos
+            empaquetado[i >> 2] |= (byte) (codigo << ((i & 3) * 2));
+        }
+
+        return MapaAsientosCompactoDTO.builder()
+                .eventoId(eventoId)
+                .version(version)
+                .totalFilas(totalFilas)
+                .totalColumnas(totalColumnas)
+                .asientosTotales(totalAsientos)
+                .asientosLibres(libres)
+                .asientosOcupados(ocupados)
+                .asientosBloqueados(bloqueados)
+                .estados(empaquetado)
+                .degradado(degradado)
+                .build();
+    }
+
+    /**
+     * Resuelve el estado de cada asiento del evento como grilla densa
+     * (índice = (fila - 1) * columnas + (columna - 1))
+     *
+     * @param estados Grilla a completar, de filas * columnas posiciones
+     * @return true si el proxy no respondió y el mapa solo refleja nuestras ventas
+     */
+    private boolean resolverEstados(Evento evento, Long version, String[] estados) {
+        Long eventoId = evento.getId();
+        int totalFilas = evento.getFilaAsientos();
+        int totalColumnas = evento.getColumnaAsientos();
+
+        // Obtener sesión actual para marcar asientos seleccionados
+        SesionCompraDTO sesionActual = null;
+        try {
+            sesionActual = sesionCompraService.obtenerSesionActual();
+        } catch (Exception e) {
+            log.debug("No hay sesión activa");
+        }
+
+        Arrays.fill(estados, EstadoAsientoDTO.LIBRE);
+        boolean degradado = false;
+
+        // Consultar estado real desde Redis de cátedra vía Proxy (una sola llamada por mapa,
+        // compartida entre consultas concurrentes y cacheada mientras no cambie la versión)
+        ProxyMapaAsientosResponseDTO mapaProxy = evento.getIdExterno() != null
+                ? proxyMapaAsientosCache.obtenerMapaAsientos(evento.getIdExterno(), version)
+                : null;
+
+        if (mapaProxy != null && mapaProxy.getAsientos() != null) {
+            for (Map.Entry<String, String> entry : mapaProxy.getAsientos().entrySet()) {
+                int indice = indiceDesdeClaveProxy(entry.getKey(), totalFilas, totalColumnas);
+                if (indice >= 0) {
+                    estados[indice] = mapearEstadoDeProxy(entry.getValue());
+                }
+            }
+            log.debug("Mapa de asientos evento {} obtenido desde proxy: {} asientos con estado",
+                    eventoId, mapaProxy.getAsientos().size());
+        } else {
+            // Sin proxy: degradar a los asientos que sabemos vendidos por nuestras ventas
+            degradado = true;
+            BitSet ocupados = ocupacionService.obtenerOcupados(evento);
+            ocupados.stream().filter(i -> i < estados.length).forEach(i -> estados[i] = EstadoAsientoDTO.OCUPADO);
+            log.warn("Mapa de asientos del evento {} no disponible en proxy, usando ventas propias ({} ocupados)",
+                    eventoId, ocupados.cardinality());
+        }
+
+        // Marcar asientos seleccionados en la sesión actual (tienen prioridad)
+        if (sesionActual != null && eventoId.equals(sesionActual.getEventoId())
+                && sesionActual.getAsientosSeleccionados() != null) {
+            for (AsientoSeleccionadoDTO seleccionado : sesionActual.getAsientosSeleccionados()) {
+                int indice = indiceAsiento(seleccionado.getFila(), seleccionado.getColumna(),
+                        totalFilas, totalColumnas);
+                if (indice >= 0) {
+                    estados[indice] = EstadoAsientoDTO.SELECCIONADO;
+                }
+            }
+        }
+
+        return degradado;
+    }
+
+    private Evento obtenerEventoActivo(Long eventoId) {
+        Evento evento = eventoRepository.findById(eventoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", "id", eventoId));
+
+        if (!evento.getActivo()) {
+            throw new BadRequestException("El evento no está disponible");
+        }
+        return evento;
+    }
+
     /**
      * Bloquea asientos en el servicio de cátedra
      */
@@ -159,6 +363,37 @@ public class AsientoServiceImpl {
             }
         }
 
+        // Pre-reservar localmente (todos o ninguno): los conflictos entre nuestros propios
+        // usuarios se resuelven acá, sin llegar a cátedra
+        Long usuarioId = usuarioActualId();
+        if (usuarioId != null) {
+            AsientoSeleccionadoDTO conflicto = preReservaService.reservar(eventoId, asientos, usuarioId,
+                    BLOQUEO_TIMEOUT_MINUTOS);
+            if (conflicto != null) {
+                return BloquearAsientosResponseDTO.builder()
+                        .exitoso(false)
+                        .mensaje("Asientos no disponibles: " + conflicto.getId())
+                        .asientosBloqueados(List.of())
+                        .build();
+            }
+        }
+
+        // Descartar en una sola consulta al proxy los asientos que ya están tomados,
+        // sin llegar a cátedra con un bloqueo que seguro va a fallar
+        List<AsientoSeleccionadoDTO> noDisponibles = buscarAsientosNoDisponibles(evento, asientos);
+        if (!noDisponibles.isEmpty()) {
+            String detalle = noDisponibles.stream()
+                    .map(AsientoSeleccionadoDTO::getId)
+                    .collect(Collectors.joining(", "));
+            log.warn("Asientos no disponibles para bloquear en evento {}: {}", eventoId, detalle);
+            deshacerPreReserva(eventoId, asientos, usuarioId);
+            return BloquearAsientosResponseDTO.builder()
+                    .exitoso(false)
+                    .mensaje("Asientos no disponibles: " + detalle)
+                    .asientosBloqueados(List.of())
+                    .build();
+        }
+
         // Convertir a formato de cátedra
         List<CatedraAsientoDTO> asientosCatedra = asientos.stream()
                 .map(a -> CatedraAsientoDTO.builder()
@@ -180,17 +415,24 @@ public class AsientoServiceImpl {
                 // Marcar asientos como bloqueados en la sesión
                 // NO llamar a actualizarAsientos() porque borraría las personas ya cargadas
                 sesionCompraService.marcarAsientosBloqueados();
+                versionService.registrarCambios(eventoId, asientos, EstadoAsientoDTO.BLOQUEADO);
+
+                // Agendar el vencimiento para liberar los asientos apenas expire el bloqueo
+                LocalDateTime expiracion = LocalDateTime.now().plusMinutes(BLOQUEO_TIMEOUT_MINUTOS);
+                bloqueoExpiracionService.agendar(usuarioId, eventoId, asientos,
+                        expiracion.atZone(ZoneId.systemDefault()).toInstant());
 
                 log.info("Asientos bloqueados exitosamente");
                 return BloquearAsientosResponseDTO.builder()
                         .exitoso(true)
                         .mensaje("Asientos bloqueados exitosamente")
                         .asientosBloqueados(asientos)
-                        .expiracion(LocalDateTime.now().plusMinutes(BLOQUEO_TIMEOUT_MINUTOS))
+                        .expiracion(expiracion)
                         .build();
             } else {
                 String desc = response != null ? response.getDescripcion() : "Error desconocido";
                 log.warn("No se pudieron bloquear los asientos: {}", desc);
+                deshacerPreReserva(eventoId, asientos, usuarioId);
                 return BloquearAsientosResponseDTO.builder()
                         .exitoso(false)
                         .mensaje(desc)
@@ -199,6 +441,7 @@ public class AsientoServiceImpl {
             }
         } catch (Exception e) {
             log.error("Error al bloquear asientos: {}", e.getMessage(), e);
+            deshacerPreReserva(eventoId, asientos, usuarioId);
             return BloquearAsientosResponseDTO.builder()
                     .exitoso(false)
                     .mensaje("Error al comunicarse con el servicio: " + e.getMessage())
@@ -219,13 +462,136 @@ public class AsientoServiceImpl {
             return;
         }
 
-        // TODO: Llamar a cátedra para liberar los asientos bloqueados
-        // Por ahora, solo limpiamos la sesión
-        
+        // Cátedra no expone liberación de asientos: el bloqueo remoto vence solo.
+        // Localmente se limpia la sesión, la pre-reserva y el vencimiento agendado
+
         sesionCompraService.limpiarSesion();
+        bloqueoExpiracionService.cancelar(sesion.getUsuarioId());
+        preReservaService.liberar(sesion.getEventoId(), sesion.getAsientosSeleccionados(), sesion.getUsuarioId());
+        if (Boolean.TRUE.equals(sesion.getAsientosBloqueados())) {
+            versionService.registrarCambios(sesion.getEventoId(), sesion.getAsientosSeleccionados(),
+                    EstadoAsientoDTO.LIBRE);
+        }
         log.info("Sesión y asientos liberados");
     }
 
+    /**
+     * Consulta el estado de los asientos solicitados en una sola llamada al proxy
+     * y devuelve los que no pueden bloquearse. Los asientos ya bloqueados por la
+     * sesión actual no se consideran tomados. Si el proxy no está disponible,
+     * solo descarta los vendidos según nuestras ventas y el resto lo decide cátedra.
+     */
+    private List<AsientoSeleccionadoDTO> buscarAsientosNoDisponibles(
+            Evento evento, List<AsientoSeleccionadoDTO> asientos) {
+
+        List<ProxyAsientoDTO> posiciones = asientos.stream()
+                .map(a -> ProxyAsientoDTO.builder()
+                        .fila(a.getFila())
+                        .columna(a.getColumna())
+                        .build())
+                .collect(Collectors.toList());
+
+        ProxyEstadoAsientosBatchResponseDTO estados = proxyClient.obtenerEstadoAsientos(evento.getIdExterno(), posiciones);
+        if (estados == null || estados.getAsientos() == null) {
+            log.warn("No se pudo verificar estado de asientos del evento {} en proxy, usando ventas propias",
+                    evento.getIdExterno());
+            BitSet ocupados = ocupacionService.obtenerOcupados(evento);
+            return asientos.stream()
+                    .filter(a -> ocupados.get(indiceAsiento(a.getFila(), a.getColumna(),
+                            evento.getFilaAsientos(), evento.getColumnaAsientos())))
+                    .collect(Collectors.toList());
+        }
+
+        Set<AsientoSeleccionadoDTO> bloqueadosPorSesion = asientosBloqueadosPorSesion();
+
+        List<AsientoSeleccionadoDTO> noDisponibles = new ArrayList<>();
+        for (ProxyEstadoAsientoResponseDTO estadoAsiento : estados.getAsientos()) {
+            String estado = mapearEstadoDeProxy(estadoAsiento.getEstado());
+            AsientoSeleccionadoDTO asiento = AsientoSeleccionadoDTO.builder()
+                    .fila(estadoAsiento.getFila())
+                    .columna(estadoAsiento.getColumna())
+                    .build();
+
+            if (estado.equals(EstadoAsientoDTO.OCUPADO)
+                    || (estado.equals(EstadoAsientoDTO.BLOQUEADO) && !bloqueadosPorSesion.contains(asiento))) {
+                noDisponibles.add(asiento);
+            }
+        }
+        return noDisponibles;
+    }
+
+    /**
+     * ID del usuario dueño de la sesión de compra actual, o null si no hay sesión
+     */
+    private Long usuarioActualId() {
+        try {
+            SesionCompraDTO sesion = sesionCompraService.obtenerSesionActual();
+            return sesion != null ? sesion.getUsuarioId() : null;
+        } catch (Exception e) {
+            log.debug("No hay sesión activa");
+            return null;
+        }
+    }
+
+    private void deshacerPreReserva(Long eventoId, List<AsientoSeleccionadoDTO> asientos, Long usuarioId) {
+        if (usuarioId != null) {
+            preReservaService.liberar(eventoId, asientos, usuarioId);
+        }
+    }
+
+    /**
+     * Asientos que la sesión actual ya tiene bloqueados en cátedra
+     */
+    private Set<AsientoSeleccionadoDTO> asientosBloqueadosPorSesion() {
+        try {
+            SesionCompraDTO sesion = sesionCompraService.obtenerSesionActual();
+            if (sesion != null && Boolean.TRUE.equals(sesion.getAsientosBloqueados())
+                    && sesion.getAsientosSeleccionados() != null) {
+                return new HashSet<>(sesion.getAsientosSeleccionados());
+            }
+        } catch (Exception e) {
+            log.debug("No hay sesión activa");
+        }
+        return Set.of();
+    }
+
+    /**
+     * Calcula el índice en la grilla densa para una posición de asiento
+     *
+     * @return índice o -1 si la posición está fuera del rango del evento
+     */
+    private int indiceAsiento(Integer fila, Integer columna, int totalFilas, int totalColumnas) {
+        if (fila == null || columna == null
+                || fila < 1 || fila > totalFilas
+                || columna < 1 || columna > totalColumnas) {
+            return -1;
+        }
+        return (fila - 1) * totalColumnas + (columna - 1);
+    }
+
+    /**
+     * Calcula el índice en la grilla densa a partir de una clave "fila:columna" del proxy
+     *
+     * @return índice o -1 si la clave es inválida o está fuera del rango del evento
+     */
+    private int indiceDesdeClaveProxy(String clave, int totalFilas, int totalColumnas) {
+        if (clave == null) {
+            return -1;
+        }
+        int separador = clave.indexOf(':');
+        if (separador <= 0 || separador == clave.length() - 1) {
+            return -1;
+        }
+        try {
+            int fila = Integer.parseInt(clave, 0, separador, 10);
+            int columna = Integer.parseInt(clave, separador + 1, clave.length(), 10);
+            return indiceAsiento(fila, columna, totalFilas, totalColumnas);
+        } catch (NumberFormatException e) {
+            log.debug("Clave de asiento inválida desde proxy: {}", clave);
+            return -1;
+        }
+    }
+
     /**
      * Mapea estados del proxy (Redis de cátedra) a estados del frontend
      * 
@@ -235,7 +601,7 @@ public class AsientoServiceImpl {
      * @param estadoProxy Estado desde Redis de cátedra
      * @return Estado para el frontend
      */
-    private String mapearEstadoDeProxy(String estadoProxy) {
+    static String mapearEstadoDeProxy(String estadoProxy) {
         if (estadoProxy == null) {
             return EstadoAsientoDTO.LIBRE;
         }
@@ -0,0 +1,220 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Expiración de los bloqueos de asientos confirmados por cátedra
+ *
+ * Cada bloqueo exitoso se agenda en una cola con demora en Redis (sorted set con el instante
+ * de vencimiento como score), por lo que sobrevive a reinicios y la comparten todas las
+ * instancias del backend. Un barrido periódico reclama de forma atómica los bloqueos vencidos
+ * en lotes y, para cada uno:
+ * - Quita la marca asientosBloqueados de la sesión de compra del usuario
+ * - Libera la pre-reserva local de los asientos
+ *
+ * Cátedra no expone un endpoint de liberación: del lado remoto el bloqueo vence solo. El mapa
+ * no se toca acá: el LIBRE real llega con la notificación ASIENTO_LIBERADO de cátedra, y un
+ * LIBRE sintético podría pisar un asiento que ya volvió a bloquear o vender otro usuario.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BloqueoAsientosExpiracionService {
+
+    private static final String COLA_KEY = "asientos:bloqueos:vencimientos";
+    private static final String DETALLE_KEY = "asientos:bloqueos:detalle";
+
+    // Demora para reintentar un bloqueo vencido cuya liberación falló
+    private static final long REINTENTO_MS = 5000;
+
+    /**
+     * KEYS: cola, detalle. ARGV: vencimiento (ms), usuarioId, "eventoId|f:c,f:c"
+     */
+    private static final RedisScript<Long> AGENDAR = RedisScript.of(
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "redis.call('HSET', KEYS[2], ARGV[2], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * KEYS: cola, detalle. ARGV: vencimiento (ms), usuarioId, "eventoId|f:c,f:c".
+     * Vuelve a agendar un bloqueo reclamado solo si el usuario no agendó otro mientras tanto
+     */
+    private static final RedisScript<Long> REAGENDAR = RedisScript.of(
+            "if redis.call('HEXISTS', KEYS[2], ARGV[2]) == 1 then return 0 end\n" +
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "redis.call('HSET', KEYS[2], ARGV[2], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * KEYS: cola, detalle. ARGV: usuarioId
+     */
+    private static final RedisScript<Long> CANCELAR = RedisScript.of(
+            "redis.call('HDEL', KEYS[2], ARGV[1])\n" +
+            "return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+    /**
+     * KEYS: cola, detalle. ARGV: usuarioId, detalle esperado.
+     * Cancela solo si el bloqueo agendado es el indicado (mismo evento y asientos)
+     */
+    private static final RedisScript<Long> CANCELAR_SI_COINCIDE = RedisScript.of(
+            "if redis.call('HGET', KEYS[2], ARGV[1]) ~= ARGV[2] then return 0 end\n" +
+            "redis.call('HDEL', KEYS[2], ARGV[1])\n" +
+            "return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+    /**
+     * KEYS: cola, detalle. ARGV: ahora (ms), tamaño del lote.
+     * Saca de la cola hasta un lote de bloqueos vencidos y devuelve "usuarioId|eventoId|f:c,f:c".
+     * Al ser atómico, cada bloqueo lo procesa una sola instancia
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECLAMAR_VENCIDOS = RedisScript.of(
+            "local vencidos = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])\n" +
+            "local resultado = {}\n" +
+            "for _, usuario in ipairs(vencidos) do\n" +
+            "  redis.call('ZREM', KEYS[1], usuario)\n" +
+            "  local detalle = redis.call('HGET', KEYS[2], usuario)\n" +
+            "  redis.call('HDEL', KEYS[2], usuario)\n" +
+            "  if detalle then table.insert(resultado, usuario .. '|' .. detalle) end\n" +
+            "end\n" +
+            "return resultado", List.class);
+
+    private final RedisService redisService;
+    private final SesionCompraServiceImpl sesionCompraService;
+    private final PreReservaAsientosService preReservaService;
+
+    @Value("${asientos.bloqueo.lote:100}")
+    private int tamanoLote;
+
+    /**
+     * Agenda el vencimiento de un bloqueo. Un usuario tiene un solo bloqueo activo:
+     * agendar de nuevo reemplaza el anterior
+     *
+     * @param usuarioId Dueño del bloqueo
+     * @param eventoId ID local del evento
+     * @param asientos Asientos bloqueados
+     * @param vencimiento Instante en que vence el bloqueo
+     */
+    public void agendar(Long usuarioId, Long eventoId, List<AsientoSeleccionadoDTO> asientos, Instant vencimiento) {
+        if (usuarioId == null || asientos == null || asientos.isEmpty()) {
+            return;
+        }
+        redisService.executeScript(AGENDAR, List.of(COLA_KEY, DETALLE_KEY),
+                vencimiento.toEpochMilli(), usuarioId, detalle(eventoId, asientos));
+    }
+
+    /**
+     * Quita de la cola el bloqueo de un usuario (liberación manual o venta confirmada)
+     */
+    public void cancelar(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        redisService.executeScript(CANCELAR, List.of(COLA_KEY, DETALLE_KEY), usuarioId);
+    }
+
+    /**
+     * Quita de la cola el bloqueo de un usuario solo si sigue siendo el de estos asientos
+     * Se usa desde la confirmación asíncrona: para entonces el usuario puede tener otro bloqueo
+     */
+    public void cancelar(Long usuarioId, Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        if (usuarioId == null || asientos == null || asientos.isEmpty()) {
+            return;
+        }
+        redisService.executeScript(CANCELAR_SI_COINCIDE, List.of(COLA_KEY, DETALLE_KEY),
+                usuarioId, detalle(eventoId, asientos));
+    }
+
+    /**
+     * Barrido de bloqueos vencidos. Procesa lotes hasta vaciar los vencidos al momento
+     */
+    @Scheduled(fixedDelayString = "${asientos.bloqueo.barrido-ms:1000}")
+    public void liberarVencidos() {
+        int total = 0;
+        List<String> lote;
+        do {
+            lote = reclamarVencidos();
+            if (lote.isEmpty()) {
+                break;
+            }
+            procesarLote(lote);
+            total += lote.size();
+        } while (lote.size() >= tamanoLote);
+
+        if (total > 0) {
+            log.info("Bloqueos de asientos vencidos liberados: {}", total);
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    @SuppressWarnings("unchecked")
+    private List<String> reclamarVencidos() {
+        List<String> vencidos = redisService.executeScript(RECLAMAR_VENCIDOS, List.of(COLA_KEY, DETALLE_KEY),
+                System.currentTimeMillis(), tamanoLote);
+        return vencidos != null ? vencidos : List.of();
+    }
+
+    private void procesarLote(List<String> lote) {
+        for (String registro : lote) {
+            Long usuarioId;
+            Long eventoId;
+            List<AsientoSeleccionadoDTO> asientos;
+            try {
+                String[] partes = registro.split("\\|", 3);
+                usuarioId = Long.valueOf(partes[0]);
+                eventoId = Long.valueOf(partes[1]);
+                asientos = parsearAsientos(partes[2]);
+            } catch (RuntimeException e) {
+                log.warn("Bloqueo vencido con formato inválido, se descarta: {}", registro);
+                continue;
+            }
+
+            try {
+                sesionCompraService.desmarcarAsientosBloqueados(usuarioId, eventoId, asientos);
+                preReservaService.liberar(eventoId, asientos, usuarioId);
+            } catch (RuntimeException e) {
+                // Ya salió de la cola al reclamarlo: se vuelve a agendar para no perder la liberación
+                log.error("Error al liberar bloqueo vencido de usuario {} en evento {}, se reintenta: {}",
+                        usuarioId, eventoId, e.getMessage());
+                redisService.executeScript(REAGENDAR, List.of(COLA_KEY, DETALLE_KEY),
+                        System.currentTimeMillis() + REINTENTO_MS, usuarioId, detalle(eventoId, asientos));
+            }
+        }
+    }
+
+    /**
+     * "eventoId|f:c,f:c" con los asientos ordenados, para poder comparar bloqueos
+     */
+    private static String detalle(Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        return eventoId + "|" + asientos.stream()
+                .sorted(Comparator.comparing(AsientoSeleccionadoDTO::getFila)
+                        .thenComparing(AsientoSeleccionadoDTO::getColumna))
+                .map(a -> a.getFila() + ":" + a.getColumna())
+                .collect(Collectors.joining(","));
+    }
+
+    private static List<AsientoSeleccionadoDTO> parsearAsientos(String asientos) {
+        List<AsientoSeleccionadoDTO> resultado = new ArrayList<>();
+        for (String posicion : asientos.split(",")) {
+            int separador = posicion.indexOf(':');
+            resultado.add(AsientoSeleccionadoDTO.builder()
+                    .fila(Integer.valueOf(posicion.substring(0, separador)))
+                    .columna(Integer.valueOf(posicion.substring(separador + 1)))
+                    .build());
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,275 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.OutboxConfirmacionVenta;
+import com.eventos.backend.domain.model.Venta;
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.dto.EstadoAsientoDTO;
+import com.eventos.backend.dto.catedra.CatedraAsientoDTO;
+import com.eventos.backend.dto.catedra.CatedraRealizarVentaRequestDTO;
+import com.eventos.backend.dto.catedra.CatedraRealizarVentaResponseDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.CatedraApiClient;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.OutboxConfirmacionVentaRepository;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.VentaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Confirmación de ventas con cátedra mediante un outbox transaccional
+ *
+ * Cada venta pendiente tiene una fila en outbox_confirmacion_venta, escrita en la misma
+ * transacción que la venta. La confirmación se intenta de inmediato en el pool de checkout;
+ * si falla, la fila se reprograma con backoff exponencial y jitter. Un barrido periódico
+ * reclama en lotes las filas vencidas con FOR UPDATE SKIP LOCKED, por lo que varias
+ * instancias del backend drenan el outbox en paralelo sin pisarse.
+ *
+ * Al reclamar una fila se la "alquila" corriendo proximo_intento: si la instancia cae
+ * durante la llamada a cátedra, otra la retoma al vencer el alquiler.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConfirmacionVentaOutboxService {
+
+    private final OutboxConfirmacionVentaRepository outboxRepository;
+    private final VentaRepository ventaRepository;
+    private final CatedraApiClient catedraApiClient;
+    private final SesionCompraServiceImpl sesionCompraService;
+    private final PreReservaAsientosService preReservaService;
+    private final BloqueoAsientosExpiracionService bloqueoExpiracionService;
+    private final MapaAsientosVersionService versionService;
+    private final EstadisticasVentasService estadisticasService;
+    private final OcupacionAsientosService ocupacionService;
+    private final ThreadPoolTaskExecutor checkoutExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${venta.outbox.lote:20}")
+    private int tamanoLote;
+
+    @Value("${venta.outbox.alquiler-ms:60000}")
+    private long alquilerMs;
+
+    @Value("${venta.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${venta.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${venta.outbox.max-intentos:10}")
+    private int maxIntentos;
+
+    /**
+     * Guarda una venta nueva junto con su confirmación pendiente, en una sola transacción
+     * La fila nace alquilada para el intento inmediato
+     */
+    @Transactional
+    public Venta registrar(Venta venta) {
+        Venta guardada = ventaRepository.save(venta);
+        outboxRepository.save(OutboxConfirmacionVenta.builder()
+                .ventaId(guardada.getId())
+                .proximoIntento(LocalDateTime.now().plus(alquilerMs, ChronoUnit.MILLIS))
+                .build());
+        estadisticasService.registrarPendiente(guardada.getEvento().getId());
+        return guardada;
+    }
+
+    /**
+     * Intenta confirmar la venta en el pool de checkout. Si el pool está saturado,
+     * la fila queda disponible para el próximo barrido
+     */
+    public void confirmarEnSegundoPlano(Long ventaId) {
+        try {
+            checkoutExecutor.execute(() -> procesar(ventaId));
+        } catch (TaskRejectedException e) {
+            log.warn("Pool de checkout saturado, la venta {} queda para el barrido del outbox", ventaId);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.findByVentaId(ventaId).ifPresent(registro -> {
+                        registro.setProximoIntento(LocalDateTime.now());
+                        outboxRepository.save(registro);
+                    }));
+        }
+    }
+
+    /**
+     * Indica si una venta sigue pendiente de confirmación
+     */
+    public boolean estaPendiente(Long ventaId) {
+        return outboxRepository.existsByVentaId(ventaId);
+    }
+
+    /**
+     * Barrido del outbox: reclama un lote de confirmaciones vencidas y las despacha al pool
+     */
+    @Scheduled(fixedDelayString = "${venta.outbox.barrido-ms:2000}")
+    public void drenar() {
+        List<Long> reclamadas = transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<OutboxConfirmacionVenta> lote = outboxRepository.reclamarVencidas(ahora, tamanoLote);
+            LocalDateTime finAlquiler = ahora.plus(alquilerMs, ChronoUnit.MILLIS);
+            lote.forEach(registro -> registro.setProximoIntento(finAlquiler));
+            return lote.stream().map(OutboxConfirmacionVenta::getVentaId).collect(Collectors.toList());
+        });
+
+        if (reclamadas == null || reclamadas.isEmpty()) {
+            return;
+        }
+
+        log.info("Reintentando {} confirmaciones de venta", reclamadas.size());
+        for (Long ventaId : reclamadas) {
+            try {
+                checkoutExecutor.execute(() -> procesar(ventaId));
+            } catch (TaskRejectedException e) {
+                // Queda alquilada: se retoma al vencer el alquiler
+                log.debug("Pool de checkout saturado, venta {} se reintenta más tarde", ventaId);
+            }
+        }
+    }
+
+    /**
+     * Confirma una venta con cátedra y registra el resultado
+     * No hay transacción abierta durante la llamada remota
+     */
+    void procesar(Long ventaId) {
+        Venta venta = ventaRepository.findByIdParaConfirmacion(ventaId).orElse(null);
+        OutboxConfirmacionVenta registro = outboxRepository.findByVentaId(ventaId).orElse(null);
+        if (registro == null) {
+            return;
+        }
+        if (venta == null) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByVentaId(ventaId));
+            return;
+        }
+        if (Boolean.TRUE.equals(venta.getConfirmadaCatedra())) {
+            // Ya confirmada por la sincronización con cátedra
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxRepository.deleteByVentaId(ventaId);
+                estadisticasService.registrarDescartada(venta.getEvento().getId());
+            });
+            ocupacionService.registrarVendidos(venta.getEvento(), asientosDe(venta));
+            return;
+        }
+
+        try {
+            Long idExterno = confirmarVentaCatedra(venta);
+            if (idExterno != null) {
+                registrarConfirmacion(venta, idExterno);
+            } else {
+                registrarFallo(registro, venta, "Error al confirmar con cátedra");
+            }
+        } catch (Exception e) {
+            log.error("Error al confirmar venta {} con cátedra: {}", ventaId, e.getMessage());
+            registrarFallo(registro, venta, "Error: " + e.getMessage());
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private Long confirmarVentaCatedra(Venta venta) {
+        if (venta.getEvento().getIdExterno() == null) {
+            log.warn("Evento sin ID externo, no se puede confirmar con cátedra");
+            return null;
+        }
+
+        List<CatedraAsientoDTO> asientosCatedra = venta.getAsientos().stream()
+                .map(a -> CatedraAsientoDTO.builder()
+                        .fila(a.getFila())
+                        .columna(a.getColumna())
+                        .persona(a.getNombrePersona())
+                        .build())
+                .collect(Collectors.toList());
+
+        CatedraRealizarVentaRequestDTO request = CatedraRealizarVentaRequestDTO.builder()
+                .eventoId(venta.getEvento().getIdExterno())
+                .asientos(asientosCatedra)
+                .build();
+
+        CatedraRealizarVentaResponseDTO response = catedraApiClient.realizarVenta(request);
+
+        if (response != null && Boolean.TRUE.equals(response.getResultado())) {
+            return response.getVentaId();
+        }
+        return null;
+    }
+
+    private void registrarConfirmacion(Venta venta, Long idExterno) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ventaRepository.actualizarResultadoConfirmacion(venta.getId(), true, idExterno,
+                    "Venta confirmada exitosamente", 0);
+            outboxRepository.deleteByVentaId(venta.getId());
+            estadisticasService.registrarConfirmada(venta.getEvento().getId(),
+                    venta.getAsientos().size(), venta.getPrecioTotal());
+        });
+
+        // Limpiar sesión y reservas tras venta exitosa. Puede correr minutos después (reintento del
+        // outbox): la sesión y el bloqueo se limpian solo si siguen siendo los de esta venta, y la
+        // pre-reserva se libera por asiento y dueño
+        Long usuarioId = venta.getUsuario().getId();
+        Long eventoId = venta.getEvento().getId();
+        List<AsientoSeleccionadoDTO> asientos = asientosDe(venta);
+
+        ocupacionService.registrarVendidos(venta.getEvento(), asientos);
+        sesionCompraService.limpiarSesionDeVenta(usuarioId, eventoId, asientos);
+        bloqueoExpiracionService.cancelar(usuarioId, eventoId, asientos);
+        preReservaService.liberar(eventoId, asientos, usuarioId);
+        versionService.registrarCambios(eventoId, asientos, EstadoAsientoDTO.OCUPADO);
+        log.info("Venta confirmada con cátedra: {}", venta.getId());
+    }
+
+    private void registrarFallo(OutboxConfirmacionVenta registro, Venta venta, String error) {
+        int intentos = registro.getIntentos() + 1;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (intentos >= maxIntentos) {
+                outboxRepository.deleteByVentaId(registro.getVentaId());
+                ventaRepository.actualizarResultadoConfirmacion(registro.getVentaId(), false, null,
+                        "Sin confirmación de cátedra tras " + intentos + " intentos. " + error, 1);
+                estadisticasService.registrarDescartada(venta.getEvento().getId());
+                log.warn("Venta {} descartada tras {} intentos de confirmación", registro.getVentaId(), intentos);
+                return;
+            }
+
+            registro.setIntentos(intentos);
+            registro.setUltimoError(error);
+            registro.setProximoIntento(LocalDateTime.now().plus(calcularBackoffMs(intentos), ChronoUnit.MILLIS));
+            outboxRepository.save(registro);
+            ventaRepository.actualizarResultadoConfirmacion(registro.getVentaId(), false, null,
+                    "Reintento " + intentos + " fallido. " + error, 1);
+            log.warn("Venta {} no confirmada (intento {}), próximo intento: {}",
+                    registro.getVentaId(), intentos, registro.getProximoIntento());
+        });
+    }
+
+    private static List<AsientoSeleccionadoDTO> asientosDe(Venta venta) {
+        return venta.getAsientos().stream()
+                .map(a -> AsientoSeleccionadoDTO.builder()
+                        .fila(a.getFila())
+                        .columna(a.getColumna())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Backoff exponencial con jitter: entre la mitad y el total de base * 2^(intentos - 1),
+     * acotado por el máximo configurado
+     */
+    private long calcularBackoffMs(int intentos) {
+        long espera = backoffBaseMs << Math.min(intentos - 1, 30);
+        if (espera <= 0 || espera > backoffMaxMs) {
+            espera = backoffMaxMs;
+        }
+        long mitad = espera / 2;
+        return mitad + ThreadLocalRandom.current().nextLong(mitad + 1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.EstadisticaVentasEvento;
+import com.eventos.backend.dto.EstadisticasVentasEventoDTO;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EstadisticaVentasEventoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Estadísticas de ventas por evento
+ *
+ * Los contadores se mantienen de forma incremental: cada cambio de estado de una venta suma
+ * sus deltas con un upsert dentro de la misma transacción que la venta, de modo que leerlos
+ * es una búsqueda por clave en lugar de un COUNT/SUM sobre ventas y asientos_venta.
+ *
+ * Las confirmaciones masivas de la sincronización con cátedra suman los totales de cada
+ * evento del lote. La reconstrucción completa queda solo para reparar los contadores a mano.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasVentasService {
+
+    private final EstadisticaVentasEventoRepository estadisticaRepository;
+
+    /**
+     * Venta nueva a la espera de confirmación de cátedra
+     */
+    public void registrarPendiente(Long eventoId) {
+        estadisticaRepository.acumular(eventoId, 0, BigDecimal.ZERO, 0, 1);
+    }
+
+    /**
+     * Venta pendiente confirmada por cátedra
+     */
+    public void registrarConfirmada(Long eventoId, int asientos, BigDecimal monto) {
+        estadisticaRepository.acumular(eventoId, asientos, monto != null ? monto : BigDecimal.ZERO, 1, -1);
+    }
+
+    /**
+     * Lote de ventas de un evento confirmado por la sincronización con cátedra.
+     * No toca las pendientes: esas salen cuando el outbox descarta su registro
+     */
+    public void registrarConfirmadasSincronizacion(Long eventoId, long ventas, long asientos, BigDecimal monto) {
+        estadisticaRepository.acumular(eventoId, asientos, monto != null ? monto : BigDecimal.ZERO, ventas, 0);
+    }
+
+    /**
+     * Venta que deja de estar pendiente sin sumar a lo vendido
+     * (descartada tras agotar reintentos, o ya confirmada por la sincronización)
+     */
+    public void registrarDescartada(Long eventoId) {
+        estadisticaRepository.acumular(eventoId, 0, BigDecimal.ZERO, 0, -1);
+    }
+
+    /**
+     * Estadísticas de un evento. Un evento sin ventas devuelve contadores en cero
+     */
+    @Transactional(readOnly = true)
+    public EstadisticasVentasEventoDTO obtenerPorEvento(Long eventoId) {
+        return estadisticaRepository.findById(eventoId)
+                .map(EstadisticasVentasService::toDTO)
+                .orElseGet(() -> EstadisticasVentasEventoDTO.builder()
+                        .eventoId(eventoId)
+                        .asientosVendidos(0L)
+                        .recaudacion(BigDecimal.ZERO)
+                        .ventasConfirmadas(0L)
+                        .ventasPendientes(0L)
+                        .build());
+    }
+
+    /**
+     * Estadísticas de todos los eventos con ventas
+     */
+    @Transactional(readOnly = true)
+    public List<EstadisticasVentasEventoDTO> obtenerTodas() {
+        return estadisticaRepository.findAll(Sort.by("eventoId")).stream()
+                .map(EstadisticasVentasService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recalcula los contadores de todos los eventos desde las tablas de ventas
+     * (reparación desde administración; bloquea los contadores mientras dura)
+     *
+     * @return Cantidad de eventos con estadísticas
+     */
+    @Transactional
+    public int reconstruir() {
+        estadisticaRepository.borrarTodas();
+        int eventos = estadisticaRepository.reconstruirTodas();
+        log.info("Estadísticas de ventas reconstruidas para {} eventos", eventos);
+        return eventos;
+    }
+
+    private static EstadisticasVentasEventoDTO toDTO(EstadisticaVentasEvento estadistica) {
+        return EstadisticasVentasEventoDTO.builder()
+                .eventoId(estadistica.getEventoId())
+                .asientosVendidos(estadistica.getAsientosVendidos())
+                .recaudacion(estadistica.getRecaudacion())
+                .ventasConfirmadas(estadistica.getVentasConfirmadas())
+                .ventasPendientes(estadistica.getVentasPendientes())
+                .actualizado(estadistica.getUpdatedAt())
+                .build();
+    }
+}
@@ -2,27 +2,35 @@ package com.eventos.backend.application.service;
 
 import com.eventos.backend.domain.model.Evento;
 import com.eventos.backend.domain.model.TipoEvento;
+import com.eventos.backend.dto.CursorPagina;
 import com.eventos.backend.dto.EventoDetalleDTO;
 import com.eventos.backend.dto.EventoResumenDTO;
+import com.eventos.backend.dto.PaginaEventosDTO;
+import com.eventos.backend.domain.exception.BadRequestException;
 import com.eventos.backend.domain.exception.ResourceNotFoundException;
 import com.eventos.backend.infrastructure.mapper.EventoMapper;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
-import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoSpecifications;
+import com.eventos.backend.infrastructure.adapter.output.external.service.EventoCache;
 import com.eventos.backend.infrastructure.adapter.output.external.service.EventoSyncService;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.TipoEventoRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,7 +40,7 @@ public class EventoServiceImpl {
     private final EventoRepository eventoRepository;
     private final TipoEventoRepository tipoEventoRepository;
     private final EventoMapper eventoMapper;
-    private final RedisService redisService;
+    private final EventoCache eventoCache;
     private final ObjectMapper objectMapper;
 
     // Prefijos para cache en Redis
@@ -43,6 +51,17 @@ public class EventoServiceImpl {
     // TTL para cache de eventos (10 minutos)
     private static final long CACHE_TTL_MINUTES = 10;
 
+    private static final Sort ORDEN_FECHA_ASC = Sort.by("fecha").ascending();
+    private static final Sort ORDEN_FECHA_DESC = Sort.by("fecha").descending();
+    private static final Set<String> ORDENES_PERMITIDOS = Set.of("fecha", "titulo", "precioEntrada", "id");
+
+    // Primera página de la paginación por cursor: antes de cualquier evento
+    private static final CursorPagina INICIO_CURSOR = new CursorPagina(LocalDateTime.of(1900, 1, 1, 0, 0), 0L);
+
+    // Los listados se invalidan por generación, por lo que pueden vivir más
+    @Value("${eventos.cache.listados-ttl-minutos:120}")
+    private long listadosTtlMinutes;
+
     // ==================== CONSULTAS BÁSICAS ====================
 
     /**
@@ -53,29 +72,70 @@ public class EventoServiceImpl {
         log.info("Obteniendo eventos activos - página: {}, tamaño: {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
         
-        String cacheKey = CACHE_PREFIX_EVENTOS_LIST + "active:" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        Pageable ordenado = ordenar(pageable, ORDEN_FECHA_ASC);
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_LIST,
+                "active:" + claveDePagina(ordenado));
         
         // Intentar obtener de cache
-        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey);
+        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey, ordenado);
         if (cachedPage != null) {
             log.debug("Eventos obtenidos desde cache: {}", cacheKey);
             return cachedPage;
         }
         
-        // Obtener de base de datos
-        List<Evento> eventos = eventoRepository.findAllActive();
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        
-        // Aplicar paginación manual (ya que el repo devuelve List)
-        Page<EventoResumenDTO> page = paginateList(eventosDTO, pageable);
+        // Obtener de base de datos (orden, límite y offset en la consulta)
+        Page<EventoResumenDTO> page = eventoRepository.findActivos(ordenado).map(eventoMapper::toResumenDTO);
         
         // Guardar en cache
         savePageToCache(cacheKey, page);
         
-        log.info("Encontrados {} eventos activos", eventos.size());
+        log.info("Encontrados {} eventos activos", page.getTotalElements());
         return page;
     }
 
+    /**
+     * Obtener eventos activos paginados por cursor, en orden de fecha
+     * La primera página se pide sin cursor; las siguientes con el siguienteCursor recibido.
+     * A diferencia de la paginación por offset, el costo de una página no crece con su posición.
+     */
+    @Transactional(readOnly = true)
+    public PaginaEventosDTO findAllActivePorCursor(String cursor, int size) {
+        int tamanio = CursorPagina.limitarTamanio(size);
+        log.info("Obteniendo eventos activos por cursor - cursor: {}, tamaño: {}", cursor, tamanio);
+
+        CursorPagina desde = CursorPagina.decodificar(cursor, INICIO_CURSOR);
+
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_LIST,
+                "cursor:" + desde.getFecha() + ":" + desde.getId() + ":" + tamanio);
+        PaginaEventosDTO cached = eventoCache.obtener(cacheKey,
+                valor -> objectMapper.convertValue(valor, PaginaEventosDTO.class));
+        if (cached != null) {
+            return cached;
+        }
+
+        // Se pide un evento de más para saber si hay página siguiente
+        List<Evento> eventos = eventoRepository.findActivosDesdeCursor(
+                desde.getFecha(), desde.getId(), PageRequest.of(0, tamanio + 1));
+        boolean hayMas = eventos.size() > tamanio;
+        if (hayMas) {
+            eventos = eventos.subList(0, tamanio);
+        }
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            Evento ultimo = eventos.get(eventos.size() - 1);
+            siguienteCursor = new CursorPagina(ultimo.getFecha(), ultimo.getId()).codificar();
+        }
+
+        PaginaEventosDTO pagina = PaginaEventosDTO.builder()
+                .eventos(eventoMapper.toResumenDTOList(eventos))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+        eventoCache.guardar(cacheKey, pagina, pagina, listadosTtlMinutes);
+        return pagina;
+    }
+
     /**
      * Obtener detalle completo de un evento por ID
      */
@@ -142,28 +202,35 @@ public class EventoServiceImpl {
     // ==================== BÚSQUEDA Y FILTRADO ====================
 
     /**
-     * Buscar eventos por título (búsqueda parcial)
+     * Buscar eventos por texto, ordenados por relevancia
+     * Busca en título, resumen y descripción, y tolera errores de tipeo en el título.
+     * El orden es siempre por relevancia: el orden pedido en el Pageable se ignora
      */
     @Transactional(readOnly = true)
-    public Page<EventoResumenDTO> searchByTitulo(String titulo, Pageable pageable) {
-        log.info("Buscando eventos por título: '{}'", titulo);
+    public Page<EventoResumenDTO> buscar(String texto, Pageable pageable) {
+        String consulta = texto != null ? texto.trim() : "";
+        if (consulta.isEmpty()) {
+            throw new BadRequestException("El texto de búsqueda no puede estar vacío");
+        }
+        log.info("Buscando eventos por texto: '{}'", consulta);
         
-        String cacheKey = CACHE_PREFIX_EVENTOS_SEARCH + "titulo:" + titulo.toLowerCase() + 
-                ":" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        Pageable pagina = PageRequest.of(pageable.getPageNumber(),
+                CursorPagina.limitarTamanio(pageable.getPageSize()));
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_SEARCH,
+                "texto:" + consulta.toLowerCase() + ":" + pagina.getPageNumber() + ":" + pagina.getPageSize());
         
-        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey);
+        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey, pagina);
         if (cachedPage != null) {
             log.debug("Búsqueda obtenida desde cache");
             return cachedPage;
         }
         
-        List<Evento> eventos = eventoRepository.findByTituloContaining(titulo);
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        Page<EventoResumenDTO> page = paginateList(eventosDTO, pageable);
+        Page<EventoResumenDTO> page = eventoRepository.buscarPorTexto(consulta, pagina)
+                .map(eventoMapper::toResumenDTO);
         
         savePageToCache(cacheKey, page);
         
-        log.info("Encontrados {} eventos con título que contiene '{}'", eventos.size(), titulo);
+        log.info("Encontrados {} eventos para '{}'", page.getTotalElements(), consulta);
         return page;
     }
 
@@ -174,20 +241,22 @@ public class EventoServiceImpl {
     public Page<EventoResumenDTO> findFutureEvents(Pageable pageable) {
         log.info("Obteniendo eventos futuros");
         
-        String cacheKey = CACHE_PREFIX_EVENTOS_LIST + "future:" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        Pageable ordenado = ordenar(pageable, ORDEN_FECHA_ASC);
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_LIST,
+                "future:" + claveDePagina(ordenado));
         
-        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey);
+        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey, ordenado);
         if (cachedPage != null) {
             return cachedPage;
         }
         
-        List<Evento> eventos = eventoRepository.findFutureEvents(LocalDateTime.now());
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        Page<EventoResumenDTO> page = paginateList(eventosDTO, pageable);
+        Page<EventoResumenDTO> page = eventoRepository.findActivosFuturos(LocalDateTime.now(), ordenado)
+                .map(eventoMapper::toResumenDTO);
         
-        savePageToCache(cacheKey, page);
+        // Depende de la hora actual: un evento que empieza pasa a "pasados" sin que cambie la generación
+        savePageToCache(cacheKey, page, CACHE_TTL_MINUTES);
         
-        log.info("Encontrados {} eventos futuros", eventos.size());
+        log.info("Encontrados {} eventos futuros", page.getTotalElements());
         return page;
     }
 
@@ -198,20 +267,22 @@ public class EventoServiceImpl {
     public Page<EventoResumenDTO> findPastEvents(Pageable pageable) {
         log.info("Obteniendo eventos pasados");
         
-        String cacheKey = CACHE_PREFIX_EVENTOS_LIST + "past:" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        Pageable ordenado = ordenar(pageable, ORDEN_FECHA_DESC);
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_LIST,
+                "past:" + claveDePagina(ordenado));
         
-        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey);
+        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey, ordenado);
         if (cachedPage != null) {
             return cachedPage;
         }
         
-        List<Evento> eventos = eventoRepository.findPastEvents(LocalDateTime.now());
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        Page<EventoResumenDTO> page = paginateList(eventosDTO, pageable);
+        Page<EventoResumenDTO> page = eventoRepository.findActivosPasados(LocalDateTime.now(), ordenado)
+                .map(eventoMapper::toResumenDTO);
         
-        savePageToCache(cacheKey, page);
+        // Depende de la hora actual, igual que los futuros
+        savePageToCache(cacheKey, page, CACHE_TTL_MINUTES);
         
-        log.info("Encontrados {} eventos pasados", eventos.size());
+        log.info("Encontrados {} eventos pasados", page.getTotalElements());
         return page;
     }
 
@@ -222,11 +293,12 @@ public class EventoServiceImpl {
     public Page<EventoResumenDTO> findByDateRange(LocalDateTime inicio, LocalDateTime fin, Pageable pageable) {
         log.info("Buscando eventos entre {} y {}", inicio, fin);
         
-        List<Evento> eventos = eventoRepository.findEventsBetweenDates(inicio, fin);
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
+        Page<EventoResumenDTO> page = eventoRepository
+                .findActivosEntreFechas(inicio, fin, ordenar(pageable, ORDEN_FECHA_ASC))
+                .map(eventoMapper::toResumenDTO);
         
-        log.info("Encontrados {} eventos en el rango de fechas", eventos.size());
-        return paginateList(eventosDTO, pageable);
+        log.info("Encontrados {} eventos en el rango de fechas", page.getTotalElements());
+        return page;
     }
 
     /**
@@ -239,21 +311,21 @@ public class EventoServiceImpl {
         TipoEvento tipoEvento = tipoEventoRepository.findById(tipoEventoId)
                 .orElseThrow(() -> new ResourceNotFoundException("TipoEvento", "id", tipoEventoId));
         
-        String cacheKey = CACHE_PREFIX_EVENTOS_LIST + "tipo:" + tipoEventoId + 
-                ":" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        Pageable ordenado = ordenar(pageable, ORDEN_FECHA_ASC);
+        String cacheKey = eventoCache.claveConGeneracion(CACHE_PREFIX_EVENTOS_LIST,
+                "tipo:" + tipoEventoId + ":" + claveDePagina(ordenado));
         
-        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey);
+        Page<EventoResumenDTO> cachedPage = getPageFromCache(cacheKey, ordenado);
         if (cachedPage != null) {
             return cachedPage;
         }
         
-        List<Evento> eventos = eventoRepository.findByTipoEventoAndActivoTrue(tipoEvento);
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        Page<EventoResumenDTO> page = paginateList(eventosDTO, pageable);
+        Page<EventoResumenDTO> page = eventoRepository.findActivosByTipo(tipoEvento.getId(), ordenado)
+                .map(eventoMapper::toResumenDTO);
         
         savePageToCache(cacheKey, page);
         
-        log.info("Encontrados {} eventos del tipo {}", eventos.size(), tipoEvento.getNombre());
+        log.info("Encontrados {} eventos del tipo {}", page.getTotalElements(), tipoEvento.getNombre());
         return page;
     }
 
@@ -271,39 +343,14 @@ public class EventoServiceImpl {
         log.info("Búsqueda avanzada - titulo: '{}', tipo: {}, desde: {}, hasta: {}", 
                 titulo, tipoEventoId, fechaDesde, fechaHasta);
         
-        // Obtener todos los eventos activos y filtrar en memoria
-        List<Evento> eventos = eventoRepository.findAllActive();
-        
-        // Aplicar filtros
-        if (titulo != null && !titulo.trim().isEmpty()) {
-            String tituloLower = titulo.toLowerCase();
-            eventos = eventos.stream()
-                    .filter(e -> e.getTitulo().toLowerCase().contains(tituloLower))
-                    .toList();
-        }
-        
-        if (tipoEventoId != null) {
-            eventos = eventos.stream()
-                    .filter(e -> e.getTipoEvento() != null && e.getTipoEvento().getId().equals(tipoEventoId))
-                    .toList();
-        }
-        
-        if (fechaDesde != null) {
-            eventos = eventos.stream()
-                    .filter(e -> e.getFecha() != null && !e.getFecha().isBefore(fechaDesde))
-                    .toList();
-        }
-        
-        if (fechaHasta != null) {
-            eventos = eventos.stream()
-                    .filter(e -> e.getFecha() != null && !e.getFecha().isAfter(fechaHasta))
-                    .toList();
-        }
+        // Solo los filtros informados llegan al WHERE; orden y paginación se resuelven en la base
+        Page<EventoResumenDTO> page = eventoRepository
+                .findAll(EventoSpecifications.busquedaAvanzada(titulo, tipoEventoId, fechaDesde, fechaHasta),
+                        ordenar(pageable, ORDEN_FECHA_ASC))
+                .map(eventoMapper::toResumenDTO);
         
-        List<EventoResumenDTO> eventosDTO = eventoMapper.toResumenDTOList(eventos);
-        
-        log.info("Búsqueda avanzada encontró {} resultados", eventos.size());
-        return paginateList(eventosDTO, pageable);
+        log.info("Búsqueda avanzada encontró {} resultados", page.getTotalElements());
+        return page;
     }
 
     // ==================== ESTADÍSTICAS ====================
@@ -323,7 +370,7 @@ public class EventoServiceImpl {
      */
     public void invalidateEventoCache(Long eventoId) {
         log.info("Invalidando cache del evento: {}", eventoId);
-        redisService.delete(CACHE_PREFIX_EVENTO + eventoId);
+        eventoCache.invalidar(CACHE_PREFIX_EVENTO + eventoId);
     }
 
     /**
@@ -331,7 +378,7 @@ public class EventoServiceImpl {
      */
     public void invalidateEventoCacheByIdExterno(Long idExterno) {
         log.info("Invalidando cache del evento por ID externo: {}", idExterno);
-        redisService.delete(CACHE_PREFIX_EVENTO + "ext:" + idExterno);
+        eventoCache.invalidar(CACHE_PREFIX_EVENTO + "ext:" + idExterno);
     }
 
     /**
@@ -340,70 +387,82 @@ public class EventoServiceImpl {
      */
     public void invalidateAllEventosCache() {
         log.info("Invalidando toda la cache de eventos");
-        // Nota: En producción, usar SCAN para encontrar y eliminar claves por patrón
-        // Por ahora, simplemente dejamos que expiren naturalmente (TTL de 10 min)
+        // Un INCR por familia: las claves de la generación anterior expiran solas
+        eventoCache.nuevaGeneracion(CACHE_PREFIX_EVENTOS_LIST);
+        eventoCache.nuevaGeneracion(CACHE_PREFIX_EVENTOS_SEARCH);
     }
 
     // ==================== MÉTODOS AUXILIARES DE CACHE ====================
 
-    private Page<EventoResumenDTO> getPageFromCache(String cacheKey) {
-        try {
-            Object cached = redisService.get(cacheKey);
-            if (cached != null) {
-                // Deserializar el objeto guardado
-                return objectMapper.convertValue(cached, new TypeReference<PageImpl<EventoResumenDTO>>() {});
+    private Page<EventoResumenDTO> getPageFromCache(String cacheKey, Pageable pageable) {
+        return eventoCache.obtener(cacheKey, cached -> {
+            try {
+                CacheablePage<EventoResumenDTO> cacheablePage = objectMapper.convertValue(cached,
+                        new TypeReference<CacheablePage<EventoResumenDTO>>() {});
+                return new PageImpl<>(cacheablePage.getContent(), pageable, cacheablePage.getTotalElements());
+            } catch (Exception e) {
+                log.warn("Error al obtener página de cache: {}", e.getMessage());
+                return null;
             }
-        } catch (Exception e) {
-            log.warn("Error al obtener página de cache: {}", e.getMessage());
-        }
-        return null;
+        });
     }
 
     private void savePageToCache(String cacheKey, Page<EventoResumenDTO> page) {
-        try {
-            // Crear un objeto serializable para guardar
-            CacheablePage<EventoResumenDTO> cacheablePage = new CacheablePage<>(
-                    page.getContent(),
-                    page.getNumber(),
-                    page.getSize(),
-                    page.getTotalElements()
-            );
-            redisService.save(cacheKey, cacheablePage, CACHE_TTL_MINUTES, TimeUnit.MINUTES);
-        } catch (Exception e) {
-            log.warn("Error al guardar página en cache: {}", e.getMessage());
-        }
+        savePageToCache(cacheKey, page, listadosTtlMinutes);
+    }
+
+    private void savePageToCache(String cacheKey, Page<EventoResumenDTO> page, long ttlMinutes) {
+        // Crear un objeto serializable para guardar
+        CacheablePage<EventoResumenDTO> cacheablePage = new CacheablePage<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements()
+        );
+        eventoCache.guardar(cacheKey, page, cacheablePage, ttlMinutes);
     }
 
     private EventoDetalleDTO getEventoFromCache(String cacheKey) {
-        try {
-            Object cached = redisService.get(cacheKey);
-            if (cached != null) {
+        return eventoCache.obtener(cacheKey, cached -> {
+            try {
                 return objectMapper.convertValue(cached, EventoDetalleDTO.class);
+            } catch (Exception e) {
+                log.warn("Error al obtener evento de cache: {}", e.getMessage());
+                return null;
             }
-        } catch (Exception e) {
-            log.warn("Error al obtener evento de cache: {}", e.getMessage());
-        }
-        return null;
+        });
     }
 
     private void saveEventoToCache(String cacheKey, EventoDetalleDTO evento) {
-        try {
-            redisService.save(cacheKey, evento, CACHE_TTL_MINUTES, TimeUnit.MINUTES);
-        } catch (Exception e) {
-            log.warn("Error al guardar evento en cache: {}", e.getMessage());
-        }
+        eventoCache.guardar(cacheKey, evento, evento, CACHE_TTL_MINUTES);
     }
 
-    private <T> Page<T> paginateList(List<T> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), list.size());
-        
-        if (start > list.size()) {
-            return new PageImpl<>(List.of(), pageable, list.size());
+    /**
+     * Valida el orden pedido (solo propiedades permitidas) o aplica el orden por defecto,
+     * y agrega el ID como desempate para que las páginas sean estables
+     */
+    private Pageable ordenar(Pageable pageable, Sort porDefecto) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : porDefecto;
+        for (Sort.Order order : sort) {
+            if (!ORDENES_PERMITIDOS.contains(order.getProperty())) {
+                throw new BadRequestException("No se puede ordenar por '" + order.getProperty() + "'");
+            }
         }
-        
-        List<T> pageContent = list.subList(start, end);
-        return new PageImpl<>(pageContent, pageable, list.size());
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id").ascending());
+        }
+        int tamanio = CursorPagina.limitarTamanio(pageable.getPageSize());
+        return PageRequest.of(pageable.getPageNumber(), tamanio, sort);
+    }
+
+    /**
+     * Parte de la clave de cache que identifica página, tamaño y orden
+     */
+    private static String claveDePagina(Pageable pageable) {
+        String orden = pageable.getSort().stream()
+                .map(order -> order.getProperty() + "-" + order.getDirection())
+                .collect(Collectors.joining(","));
+        return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + orden;
     }
 
     // ==================== CLASE AUXILIAR PARA CACHE ====================
@@ -0,0 +1,150 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.exception.BadRequestException;
+import com.eventos.backend.domain.exception.ConflictException;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de requests con el header Idempotency-Key
+ *
+ * El primer request con una clave la reclama en Redis (marca EN_CURSO) y ejecuta la operación;
+ * al terminar guarda el resultado serializado. Los reintentos con la misma clave devuelven ese
+ * resultado sin repetir las llamadas al proxy ni a cátedra. Si llegan mientras la primera
+ * ejecución sigue en curso, esperan su resultado.
+ *
+ * Las claves se separan por operación y por usuario. Si la operación lanza una excepción,
+ * la clave se libera para que el cliente pueda reintentar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotenciaService {
+
+    private static final String IDEMPOTENCIA_PREFIX = "idempotencia:";
+    private static final String EN_CURSO = "EN_CURSO";
+    private static final String COMPLETADO = "C|";
+    private static final int MAX_LONGITUD_CLAVE = 128;
+
+    /**
+     * KEYS: clave. ARGV: marca en curso, TTL en ms.
+     * Reclama la clave si está libre (devuelve nil) o devuelve el valor actual
+     */
+    private static final RedisScript<String> RECLAMAR = RedisScript.of(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return nil end\n" +
+            "return redis.call('GET', KEYS[1])", String.class);
+
+    /**
+     * KEYS: clave. ARGV: resultado, TTL en ms
+     */
+    private static final RedisScript<String> COMPLETAR = RedisScript.of(
+            "return redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])", String.class);
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotencia.en-curso-ms:60000}")
+    private long enCursoMs;
+
+    @Value("${idempotencia.resultado-ttl-ms:86400000}")
+    private long resultadoTtlMs;
+
+    @Value("${idempotencia.espera-ms:40000}")
+    private long esperaMaximaMs;
+
+    /**
+     * Ejecuta la operación una sola vez por clave de idempotencia
+     *
+     * @param operacion Nombre de la operación (separa las claves de distintos endpoints)
+     * @param clave Valor del header Idempotency-Key; si es null la operación se ejecuta siempre
+     * @param tipo Tipo del resultado, para deserializar respuestas guardadas
+     * @param ejecucion Operación a ejecutar
+     * @return Resultado de la operación, propio o de la ejecución original
+     */
+    public <T> T ejecutar(String operacion, String clave, Class<T> tipo, Supplier<T> ejecucion) {
+        if (clave == null || clave.isBlank()) {
+            return ejecucion.get();
+        }
+        if (clave.length() > MAX_LONGITUD_CLAVE) {
+            throw new BadRequestException("Idempotency-Key no puede superar " + MAX_LONGITUD_CLAVE + " caracteres");
+        }
+
+        String key = IDEMPOTENCIA_PREFIX + operacion + ":" + usuarioActual() + ":" + clave;
+        long limite = System.currentTimeMillis() + esperaMaximaMs;
+        long pausa = 50;
+
+        while (true) {
+            String actual = redisService.executeScript(RECLAMAR, List.of(key), EN_CURSO, enCursoMs);
+
+            if (actual == null) {
+                // Clave reclamada (o Redis no disponible): ejecutar
+                return ejecutarYGuardar(key, tipo, ejecucion);
+            }
+            if (actual.startsWith(COMPLETADO)) {
+                log.info("Request repetido con Idempotency-Key {}, devolviendo resultado original", clave);
+                return deserializar(actual.substring(COMPLETADO.length()), tipo);
+            }
+            if (System.currentTimeMillis() > limite) {
+                throw new ConflictException("Hay una solicitud en curso con la misma Idempotency-Key");
+            }
+
+            // La ejecución original sigue en curso: esperar su resultado
+            dormir(pausa);
+            pausa = Math.min(pausa * 2, 500);
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private <T> T ejecutarYGuardar(String key, Class<T> tipo, Supplier<T> ejecucion) {
+        T resultado;
+        try {
+            resultado = ejecucion.get();
+        } catch (RuntimeException e) {
+            redisService.delete(key);
+            throw e;
+        }
+
+        try {
+            redisService.executeScript(COMPLETAR, List.of(key),
+                    COMPLETADO + objectMapper.writeValueAsString(resultado), resultadoTtlMs);
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo guardar el resultado idempotente de {}: {}", key, e.getMessage());
+            redisService.delete(key);
+        }
+        return resultado;
+    }
+
+    private <T> T deserializar(String json, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(json, tipo);
+        } catch (JsonProcessingException e) {
+            throw new ConflictException("No se pudo recuperar el resultado de la solicitud original");
+        }
+    }
+
+    private static String usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonimo";
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Espera de solicitud idempotente interrumpida");
+        }
+    }
+}
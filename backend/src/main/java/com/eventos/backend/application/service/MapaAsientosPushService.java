@@ -0,0 +1,240 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.exception.ConflictException;
+import com.eventos.backend.dto.CambiosAsientosDTO;
+import com.eventos.backend.dto.EstadoAsientoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Envío en tiempo real de los cambios de asientos a los clientes que están viendo un mapa
+ *
+ * Cada cliente abre un stream Server-Sent Events por evento. Las conexiones abiertas
+ * no ocupan un thread: el servlet queda en modo asíncrono y solo se escribe cuando
+ * llega un cambio (o el heartbeat periódico).
+ *
+ * Los cambios llegan por el canal de Redis {@link MapaAsientosVersionService#CANAL_CAMBIOS},
+ * así cada instancia del backend notifica a sus propios suscriptores sin importar
+ * qué instancia recibió la notificación del proxy o hizo el bloqueo/venta.
+ *
+ * Cada evento SSE lleva como id la versión del mapa: si el cliente se desconecta,
+ * se pone al día con GET /api/asientos/evento/{id}/cambios?desde={version}.
+ * Los estados enviados son los compartidos; cada cliente superpone su propia selección.
+ *
+ * Publicar nunca escribe en el socket: encola el evento en la cola acotada de cada suscriptor
+ * y un pool propio la vacía. Un suscriptor cuya cola se llena (cliente que no lee) se cierra;
+ * al reconectar se pone al día con la versión.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MapaAsientosPushService {
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor pushExecutor;
+
+    @Value("${asientos.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${asientos.push.max-suscriptores:10000}")
+    private int maxSuscriptores;
+
+    @Value("${asientos.push.pendientes-por-suscriptor:32}")
+    private int maxPendientes;
+
+    private final Map<Long, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSuscriptores = new AtomicInteger();
+
+    /**
+     * Suscribe un cliente a los cambios de asientos de un evento
+     *
+     * @param eventoId ID local del evento
+     * @return Emitter SSE a devolver desde el controller
+     */
+    public SseEmitter suscribir(Long eventoId) {
+        if (totalSuscriptores.incrementAndGet() > maxSuscriptores) {
+            totalSuscriptores.decrementAndGet();
+            throw new ConflictException("Se alcanzó el máximo de suscriptores en tiempo real, reintente más tarde");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(eventoId, emitter, new ArrayBlockingQueue<>(maxPendientes));
+        suscriptores.computeIfAbsent(eventoId, id -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(e -> quitar(suscriptor));
+
+        log.debug("Nuevo suscriptor al mapa de asientos del evento {} ({} en total)",
+                eventoId, totalSuscriptores.get());
+        return emitter;
+    }
+
+    /**
+     * Envía los cambios de un evento a todos sus suscriptores
+     * El JSON se arma una sola vez y se reutiliza para cada conexión
+     */
+    public void publicar(MapaAsientosVersionService.CambiosDesdeVersion cambios) {
+        Set<Suscriptor> destinatarios = suscriptores.get(cambios.getEventoId());
+        if (destinatarios == null || destinatarios.isEmpty()) {
+            return;
+        }
+
+        List<EstadoAsientoDTO> asientos = cambios.getCambios().stream()
+                .map(c -> EstadoAsientoDTO.builder()
+                        .fila(c.getFila())
+                        .columna(c.getColumna())
+                        .estado(AsientoServiceImpl.mapearEstadoDeProxy(c.getEstado()))
+                        .build())
+                .collect(Collectors.toList());
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(CambiosAsientosDTO.builder()
+                    .eventoId(cambios.getEventoId())
+                    .version(cambios.getVersion())
+                    .completo(false)
+                    .cambios(asientos)
+                    .build());
+        } catch (IOException e) {
+            log.error("Error al serializar cambios de asientos del evento {}: {}",
+                    cambios.getEventoId(), e.getMessage());
+            return;
+        }
+
+        // El builder acumula estado al construirse, se crea uno por conexión
+        String version = String.valueOf(cambios.getVersion());
+        for (Suscriptor suscriptor : destinatarios) {
+            encolar(suscriptor, SseEmitter.event()
+                    .id(version)
+                    .name("cambios")
+                    .data(json, MediaType.APPLICATION_JSON));
+        }
+        log.debug("Cambios de asientos evento {} (versión {}) encolados para {} suscriptores",
+                cambios.getEventoId(), cambios.getVersion(), destinatarios.size());
+    }
+
+    /**
+     * Heartbeat periódico: mantiene abiertas las conexiones detrás de proxies
+     * y detecta los clientes que ya se desconectaron
+     */
+    @Scheduled(fixedDelayString = "${asientos.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        suscriptores.values().forEach(destinatarios ->
+                destinatarios.forEach(suscriptor -> encolar(suscriptor, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Deja el evento en la cola del suscriptor y agenda su envío si no hay uno en curso.
+     * No bloquea: si la cola está llena o el pool saturado, el suscriptor se cierra
+     */
+    private void encolar(Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) {
+        if (!suscriptor.pendientes().offer(evento)) {
+            log.debug("Suscriptor del evento {} no consume los cambios, se cierra", suscriptor.eventoId());
+            cerrar(suscriptor);
+            return;
+        }
+        if (suscriptor.enviando().compareAndSet(false, true)) {
+            try {
+                pushExecutor.execute(() -> vaciar(suscriptor));
+            } catch (TaskRejectedException e) {
+                suscriptor.enviando().set(false);
+                log.warn("Pool de envío SSE saturado, se cierra un suscriptor del evento {}", suscriptor.eventoId());
+                cerrar(suscriptor);
+            }
+        }
+    }
+
+    /**
+     * Envía en orden los eventos pendientes de un suscriptor (un solo envío en curso por suscriptor)
+     */
+    private void vaciar(Suscriptor suscriptor) {
+        do {
+            SseEmitter.SseEventBuilder evento;
+            while ((evento = suscriptor.pendientes().poll()) != null) {
+                if (suscriptor.cerrado().get()) {
+                    break;
+                }
+                try {
+                    suscriptor.emitter().send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Suscriptor del evento {} desconectado: {}", suscriptor.eventoId(), e.getMessage());
+                    quitar(suscriptor);
+                    break;
+                }
+            }
+            if (suscriptor.cerrado().get()) {
+                suscriptor.pendientes().clear();
+                completar(suscriptor);
+            }
+            suscriptor.enviando().set(false);
+            // Un evento encolado justo después de vaciar la cola no tiene quién lo envíe: retomarlo
+        } while (!suscriptor.pendientes().isEmpty() && suscriptor.enviando().compareAndSet(false, true));
+    }
+
+    /**
+     * Deja de publicarle al suscriptor. El emitter se completa desde el pool (nunca desde
+     * quien publica) porque completar espera a que termine una escritura en curso
+     */
+    private void cerrar(Suscriptor suscriptor) {
+        quitar(suscriptor);
+        if (suscriptor.enviando().compareAndSet(false, true)) {
+            try {
+                pushExecutor.execute(() -> vaciar(suscriptor));
+            } catch (TaskRejectedException e) {
+                suscriptor.enviando().set(false);
+            }
+        }
+    }
+
+    private void completar(Suscriptor suscriptor) {
+        try {
+            suscriptor.emitter().complete();
+        } catch (IllegalStateException e) {
+            // Ya completado por timeout o error de la conexión
+        }
+    }
+
+    private void quitar(Suscriptor suscriptor) {
+        if (!suscriptor.cerrado().compareAndSet(false, true)) {
+            return;
+        }
+        Set<Suscriptor> destinatarios = suscriptores.get(suscriptor.eventoId());
+        if (destinatarios != null && destinatarios.remove(suscriptor)) {
+            totalSuscriptores.decrementAndGet();
+            if (destinatarios.isEmpty()) {
+                suscriptores.remove(suscriptor.eventoId(), destinatarios);
+            }
+        }
+    }
+
+    /**
+     * Conexión SSE con su cola acotada de eventos pendientes
+     */
+    private record Suscriptor(Long eventoId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pendientes,
+                              AtomicBoolean enviando, AtomicBoolean cerrado) {
+
+        Suscriptor(Long eventoId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pendientes) {
+            this(eventoId, emitter, pendientes, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+}
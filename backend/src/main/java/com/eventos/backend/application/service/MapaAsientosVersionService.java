@@ -0,0 +1,254 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versión monótona y registro de cambios del mapa de asientos de cada evento
+ *
+ * Cada cambio de estado de asientos del evento (notificación ASIENTO_* desde el proxy,
+ * bloqueo, liberación o venta local) incrementa la versión y guarda las transiciones
+ * en un buffer circular acotado. Esto permite:
+ * - Responder 304 cuando el mapa del cliente sigue vigente, sin consultar al proxy
+ * - Enviar solo los asientos que cambiaron desde una versión dada
+ *
+ * Versión y buffer viven en Redis para que sean compartidos entre instancias del backend,
+ * y se actualizan juntos con un script Lua. La versión se inicializa con el timestamp actual
+ * para no repetir versiones si la key se pierde; por eso ambas keys pueden vencer unos días
+ * después del último cambio, sin dejar en Redis las de eventos pasados o cancelados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MapaAsientosVersionService {
+
+    private static final String VERSION_KEY_PREFIX = "asientos:version:";
+    private static final String CAMBIOS_KEY_PREFIX = "asientos:cambios:";
+
+    /**
+     * Canal de Redis donde se publica cada cambio registrado, para que todas las instancias
+     * lo reenvíen a sus clientes suscritos. Mensaje: "eventoId|version;fila|columna|estado;..."
+     */
+    public static final String CANAL_CAMBIOS = "asientos:cambios";
+
+    /**
+     * KEYS: version, cambios. ARGV: tamaño del buffer, versión inicial, eventoId, TTL en ms,
+     * "fila|columna|estado"...
+     */
+    private static final RedisScript<Long> REGISTRAR_CAMBIOS = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('SET', KEYS[1], ARGV[2]) end\n" +
+            "local v = redis.call('INCR', KEYS[1])\n" +
+            "local mensaje = {ARGV[3] .. '|' .. v}\n" +
+            "for i = 5, #ARGV do\n" +
+            "  redis.call('LPUSH', KEYS[2], v .. '|' .. ARGV[i])\n" +
+            "  table.insert(mensaje, ARGV[i])\n" +
+            "end\n" +
+            "redis.call('LTRIM', KEYS[2], 0, tonumber(ARGV[1]) - 1)\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[4])\n" +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[4])\n" +
+            "redis.call('PUBLISH', '" + CANAL_CAMBIOS + "', table.concat(mensaje, ';'))\n" +
+            "return v", Long.class);
+
+    /**
+     * KEYS: version, cambios. Devuelve la versión seguida de los cambios, del más nuevo al más viejo
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEER_CAMBIOS = RedisScript.of(
+            "local cambios = redis.call('LRANGE', KEYS[2], 0, -1)\n" +
+            "table.insert(cambios, 1, redis.call('GET', KEYS[1]) or '')\n" +
+            "return cambios", List.class);
+
+    private final RedisService redisService;
+    private final EventoRepository eventoRepository;
+
+    @Value("${asientos.cambios.buffer:512}")
+    private int tamanioBuffer;
+
+    @Value("${asientos.cambios.ttl-ms:259200000}")
+    private long ttlMs;
+
+    /**
+     * Cache de ID externo (cátedra) -> ID local; la relación no cambia una vez sincronizado el evento
+     */
+    private final Map<Long, Long> idLocalPorExterno = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene la versión actual del mapa de asientos de un evento
+     *
+     * @param eventoId ID local del evento
+     * @return Versión actual o null si Redis no está disponible
+     */
+    public Long obtenerVersion(Long eventoId) {
+        String key = VERSION_KEY_PREFIX + eventoId;
+        Object valor = redisService.get(key);
+        if (valor == null) {
+            redisService.saveIfAbsent(key, System.currentTimeMillis(), ttlMs, TimeUnit.MILLISECONDS);
+            valor = redisService.get(key);
+        }
+        return valor instanceof Number ? ((Number) valor).longValue() : null;
+    }
+
+    /**
+     * Registra un cambio de estado de asientos e incrementa la versión del mapa
+     *
+     * @param eventoId ID local del evento
+     * @param asientos Asientos que cambiaron
+     * @param estado Nuevo estado de los asientos
+     * @return Nueva versión o null si Redis no está disponible
+     */
+    public Long registrarCambios(Long eventoId, List<AsientoSeleccionadoDTO> asientos, String estado) {
+        List<Object> args = new ArrayList<>(asientos.size() + 4);
+        args.add(tamanioBuffer);
+        args.add(System.currentTimeMillis());
+        args.add(eventoId);
+        args.add(ttlMs);
+        for (AsientoSeleccionadoDTO asiento : asientos) {
+            args.add(asiento.getFila() + "|" + asiento.getColumna() + "|" + estado);
+        }
+
+        Long version = redisService.executeScript(REGISTRAR_CAMBIOS,
+                List.of(VERSION_KEY_PREFIX + eventoId, CAMBIOS_KEY_PREFIX + eventoId), args.toArray());
+        log.debug("Versión del mapa de asientos evento {}: {} ({} asientos -> {})",
+                eventoId, version, asientos.size(), estado);
+        return version;
+    }
+
+    /**
+     * Registra el cambio de un asiento notificado por cátedra (ID de evento externo)
+     *
+     * @return Nueva versión o null si el evento no existe localmente o Redis no está disponible
+     */
+    public Long registrarCambioPorIdExterno(Long eventoIdExterno, Integer fila, Integer columna, String estado) {
+        Long eventoId = resolverIdLocal(eventoIdExterno);
+        if (eventoId == null) {
+            log.debug("Evento externo {} no sincronizado localmente, no se versiona", eventoIdExterno);
+            return null;
+        }
+        return registrarCambios(eventoId,
+                List.of(AsientoSeleccionadoDTO.builder().fila(fila).columna(columna).build()), estado);
+    }
+
+    /**
+     * Obtiene los asientos que cambiaron después de una versión
+     *
+     * @param eventoId ID local del evento
+     * @param desde Versión que ya tiene el cliente
+     * @return Cambios con la versión actual, o null si la versión ya salió del buffer
+     *         (o no es válida) y el cliente debe pedir el mapa completo
+     */
+    public CambiosDesdeVersion obtenerCambiosDesde(Long eventoId, long desde) {
+        List<?> resultado = redisService.executeScript(LEER_CAMBIOS,
+                List.of(VERSION_KEY_PREFIX + eventoId, CAMBIOS_KEY_PREFIX + eventoId));
+        if (resultado == null || resultado.isEmpty() || resultado.get(0).toString().isEmpty()) {
+            return null;
+        }
+
+        long version = Long.parseLong(resultado.get(0).toString());
+        if (desde > version) {
+            return null;
+        }
+
+        // Del más nuevo al más viejo: la primera transición de cada asiento es la vigente
+        Map<String, AsientoCambiado> cambios = new LinkedHashMap<>();
+        long versionMasVieja = version;
+        for (int i = 1; i < resultado.size(); i++) {
+            String[] partes = resultado.get(i).toString().split("\\|");
+            long versionCambio = Long.parseLong(partes[0]);
+            versionMasVieja = versionCambio;
+            if (versionCambio > desde) {
+                cambios.putIfAbsent(partes[1] + "|" + partes[2], new AsientoCambiado(
+                        Integer.parseInt(partes[1]), Integer.parseInt(partes[2]), partes[3]));
+            }
+        }
+
+        // Si el buffer se recortó, la versión más vieja puede estar incompleta y solo se garantiza lo posterior
+        int entradas = resultado.size() - 1;
+        long ultimaVersionCubierta = entradas < tamanioBuffer ? versionMasVieja - 1 : versionMasVieja;
+        boolean cubierto = desde == version || (entradas > 0 && desde >= ultimaVersionCubierta);
+        if (!cubierto) {
+            return null;
+        }
+        return new CambiosDesdeVersion(eventoId, version, new ArrayList<>(cambios.values()));
+    }
+
+    /**
+     * Interpreta un mensaje publicado en {@link #CANAL_CAMBIOS}
+     *
+     * @return Cambios publicados o null si el mensaje no tiene el formato esperado
+     */
+    public CambiosDesdeVersion parsearCambiosPublicados(String mensaje) {
+        try {
+            String[] partes = mensaje.split(";");
+            String[] cabecera = partes[0].split("\\|");
+            List<AsientoCambiado> cambios = new ArrayList<>(partes.length - 1);
+            for (int i = 1; i < partes.length; i++) {
+                String[] cambio = partes[i].split("\\|");
+                cambios.add(new AsientoCambiado(
+                        Integer.parseInt(cambio[0]), Integer.parseInt(cambio[1]), cambio[2]));
+            }
+            return new CambiosDesdeVersion(Long.parseLong(cabecera[0]), Long.parseLong(cabecera[1]), cambios);
+        } catch (RuntimeException e) {
+            log.warn("Mensaje de cambios de asientos inválido: {}", mensaje);
+            return null;
+        }
+    }
+
+    /**
+     * Resuelve el ID local de un evento a partir de su ID en cátedra
+     *
+     * @return ID local o null si el evento no existe localmente
+     */
+    public Long resolverIdLocal(Long eventoIdExterno) {
+        if (eventoIdExterno == null) {
+            return null;
+        }
+        Long eventoId = idLocalPorExterno.get(eventoIdExterno);
+        if (eventoId == null) {
+            eventoId = eventoRepository.findByIdExterno(eventoIdExterno)
+                    .map(Evento::getId)
+                    .orElse(null);
+            if (eventoId != null) {
+                idLocalPorExterno.put(eventoIdExterno, eventoId);
+            }
+        }
+        return eventoId;
+    }
+
+    /**
+     * Asientos que cambiaron en un evento desde una versión, junto con la versión actual
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CambiosDesdeVersion {
+        private final long eventoId;
+        private final long version;
+        private final List<AsientoCambiado> cambios;
+    }
+
+    /**
+     * Transición de un asiento; el estado es el informado por cátedra o el local
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class AsientoCambiado {
+        private final int fila;
+        private final int columna;
+        private final String estado;
+    }
+}
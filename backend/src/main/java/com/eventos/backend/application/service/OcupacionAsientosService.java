@@ -0,0 +1,211 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.AsientoVenta;
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.AsientoVentaRepository;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bitmap de ocupación por evento: los asientos vendidos según nuestras propias ventas
+ *
+ * Es la fuente de respaldo cuando el proxy no responde: en lugar de esperar timeouts
+ * y mostrar todo LIBRE, el mapa se degrada a "lo que sabemos vendido" en milisegundos.
+ *
+ * - En Redis se guarda como bitmap (un bit por asiento, índice = (fila - 1) * columnas + (columna - 1))
+ *   compartido por todas las instancias; un bit centinela en la posición "total de asientos"
+ *   marca que el bitmap está construido
+ * - En memoria se mantiene una copia por un tiempo corto para no ir a Redis en cada mapa
+ * - Si no existe se construye desde asientos_venta; cada venta confirmada marca sus asientos
+ *
+ * Un asiento vendido no vuelve a quedar libre, por lo que construir y marcar solo encienden bits
+ * y pueden ejecutarse en cualquier orden.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OcupacionAsientosService {
+
+    private static final String OCUPACION_PREFIX = "asientos:ocupacion:";
+
+    /**
+     * KEYS: bitmap. ARGV: TTL en ms, índices. Marca siempre, aunque el bitmap no esté construido:
+     * sin el centinela sigue leyéndose como incompleto, y una construcción en curso suma sus bits
+     * a estos en lugar de perder una venta confirmada mientras leía la base
+     */
+    private static final RedisScript<Long> MARCAR = RedisScript.of(
+            "for i = 2, #ARGV do redis.call('SETBIT', KEYS[1], ARGV[i], 1) end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1", Long.class);
+
+    /**
+     * KEYS: bitmap. ARGV: total de asientos (bit centinela), TTL en ms, índices vendidos
+     */
+    private static final RedisScript<Long> CONSTRUIR = RedisScript.of(
+            "redis.call('SETBIT', KEYS[1], ARGV[1], 1)\n" +
+            "for i = 3, #ARGV do redis.call('SETBIT', KEYS[1], ARGV[i], 1) end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "return 1", Long.class);
+
+    /**
+     * KEYS: bitmap. Devuelve los índices encendidos (incluido el centinela),
+     * o nil si el bitmap no existe
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEER = RedisScript.of(
+            "local bits = redis.call('GET', KEYS[1])\n" +
+            "if not bits then return false end\n" +
+            "local resultado = {}\n" +
+            "for i = 1, #bits do\n" +
+            "  local byte = string.byte(bits, i)\n" +
+            "  if byte > 0 then\n" +
+            "    for j = 0, 7 do\n" +
+            "      if bit.band(byte, bit.rshift(128, j)) ~= 0 then table.insert(resultado, (i - 1) * 8 + j) end\n" +
+            "    end\n" +
+            "  end\n" +
+            "end\n" +
+            "return resultado", List.class);
+
+    private final RedisService redisService;
+    private final AsientoVentaRepository asientoVentaRepository;
+
+    @Value("${asientos.ocupacion.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${asientos.ocupacion.memoria-ttl-ms:5000}")
+    private long memoriaTtlMs;
+
+    private final Map<Long, Ocupacion> memoria = new ConcurrentHashMap<>();
+
+    /**
+     * Asientos vendidos de un evento como bitmap sobre la grilla densa
+     * El resultado no debe modificarse
+     */
+    public BitSet obtenerOcupados(Evento evento) {
+        Long eventoId = evento.getId();
+        long ahora = System.currentTimeMillis();
+
+        Ocupacion local = memoria.get(eventoId);
+        if (local != null && local.expira > ahora) {
+            return local.bits;
+        }
+
+        int totalAsientos = evento.getFilaAsientos() * evento.getColumnaAsientos();
+        BitSet bits = leerRedis(eventoId, totalAsientos);
+        if (bits == null) {
+            bits = construir(evento);
+        }
+
+        memoria.put(eventoId, new Ocupacion(bits, ahora + memoriaTtlMs));
+        return bits;
+    }
+
+    /**
+     * Marca como vendidos los asientos de una venta confirmada
+     */
+    public void registrarVendidos(Evento evento, List<AsientoSeleccionadoDTO> asientos) {
+        int columnas = evento.getColumnaAsientos();
+        int totalAsientos = evento.getFilaAsientos() * columnas;
+
+        List<Integer> indices = new ArrayList<>(asientos.size());
+        for (AsientoSeleccionadoDTO asiento : asientos) {
+            int indice = indice(asiento.getFila(), asiento.getColumna(), evento.getFilaAsientos(), columnas);
+            if (indice >= 0) {
+                indices.add(indice);
+            }
+        }
+        if (indices.isEmpty()) {
+            return;
+        }
+
+        List<Object> argumentos = new ArrayList<>(indices.size() + 1);
+        argumentos.add(ttlMs);
+        argumentos.addAll(indices);
+        redisService.executeScript(MARCAR, List.of(getOcupacionKey(evento.getId())), argumentos.toArray());
+
+        // Copia local: se reemplaza en lugar de modificarla, quien la haya leído la sigue usando intacta
+        memoria.computeIfPresent(evento.getId(), (id, actual) -> {
+            BitSet bits = (BitSet) actual.bits.clone();
+            indices.forEach(bits::set);
+            return new Ocupacion(bits, actual.expira);
+        });
+        log.debug("Ocupación evento {}: {} asientos vendidos de {}", evento.getId(), indices.size(), totalAsientos);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    @SuppressWarnings("unchecked")
+    private BitSet leerRedis(Long eventoId, int totalAsientos) {
+        List<Object> indices = redisService.executeScript(LEER, List.of(getOcupacionKey(eventoId)));
+        if (indices == null) {
+            return null;
+        }
+
+        BitSet bits = new BitSet(totalAsientos);
+        boolean construido = false;
+        for (Object valor : indices) {
+            int indice = Integer.parseInt(String.valueOf(valor));
+            if (indice == totalAsientos) {
+                construido = true;
+            } else if (indice < totalAsientos) {
+                bits.set(indice);
+            }
+        }
+        return construido ? bits : null;
+    }
+
+    private BitSet construir(Evento evento) {
+        int filas = evento.getFilaAsientos();
+        int columnas = evento.getColumnaAsientos();
+        int totalAsientos = filas * columnas;
+
+        BitSet bits = new BitSet(totalAsientos);
+        for (AsientoVenta asiento : asientoVentaRepository.findAsientosVendidosByEvento(evento.getId())) {
+            int indice = indice(asiento.getFila(), asiento.getColumna(), filas, columnas);
+            if (indice >= 0) {
+                bits.set(indice);
+            }
+        }
+
+        List<Object> argumentos = new ArrayList<>(bits.cardinality() + 2);
+        argumentos.add(totalAsientos);
+        argumentos.add(ttlMs);
+        bits.stream().forEach(argumentos::add);
+        redisService.executeScript(CONSTRUIR, List.of(getOcupacionKey(evento.getId())), argumentos.toArray());
+
+        log.info("Bitmap de ocupación construido para evento {}: {} asientos vendidos", evento.getId(),
+                bits.cardinality());
+        return bits;
+    }
+
+    private static int indice(Integer fila, Integer columna, int totalFilas, int totalColumnas) {
+        if (fila == null || columna == null
+                || fila < 1 || fila > totalFilas
+                || columna < 1 || columna > totalColumnas) {
+            return -1;
+        }
+        return (fila - 1) * totalColumnas + (columna - 1);
+    }
+
+    private String getOcupacionKey(Long eventoId) {
+        return OCUPACION_PREFIX + eventoId;
+    }
+
+    @AllArgsConstructor
+    private static class Ocupacion {
+        private final BitSet bits;
+        private final long expira;
+    }
+}
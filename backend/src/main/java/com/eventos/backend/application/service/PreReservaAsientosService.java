@@ -0,0 +1,105 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-reserva local de asientos en nuestro Redis, previa al bloqueo en cátedra
+ *
+ * Antes de llamar a cátedra, los asientos se reclaman para el usuario de forma atómica
+ * (todos o ninguno) con un TTL igual al del bloqueo. Si otro de nuestros usuarios ya tiene
+ * alguno de los asientos, el pedido se rechaza en el momento sin llegar a la API remota.
+ * Si cátedra rechaza el bloqueo, la pre-reserva se deshace.
+ *
+ * Si Redis no está disponible, no se bloquea la operación: la decisión queda en manos de cátedra.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PreReservaAsientosService {
+
+    private static final String RESERVA_KEY_PREFIX = "asientos:reserva:";
+
+    /**
+     * KEYS: un key por asiento. ARGV: dueño, TTL en ms.
+     * Devuelve 0 si reservó todos, o la posición (1..n) del primer asiento tomado por otro dueño
+     */
+    private static final RedisScript<Long> RESERVAR = RedisScript.of(
+            "for i, key in ipairs(KEYS) do\n" +
+            "  local actual = redis.call('GET', key)\n" +
+            "  if actual and actual ~= ARGV[1] then return i end\n" +
+            "end\n" +
+            "for _, key in ipairs(KEYS) do redis.call('SET', key, ARGV[1], 'PX', ARGV[2]) end\n" +
+            "return 0", Long.class);
+
+    /**
+     * KEYS: un key por asiento. ARGV: dueño. Solo borra las reservas que pertenecen al dueño
+     */
+    private static final RedisScript<Long> LIBERAR = RedisScript.of(
+            "local liberados = 0\n" +
+            "for _, key in ipairs(KEYS) do\n" +
+            "  if redis.call('GET', key) == ARGV[1] then\n" +
+            "    redis.call('DEL', key)\n" +
+            "    liberados = liberados + 1\n" +
+            "  end\n" +
+            "end\n" +
+            "return liberados", Long.class);
+
+    private final RedisService redisService;
+
+    /**
+     * Pre-reserva los asientos para un usuario, todos o ninguno
+     *
+     * @param eventoId ID local del evento
+     * @param asientos Asientos a reservar
+     * @param usuarioId Dueño de la reserva
+     * @param ttlMinutos Duración de la reserva
+     * @return null si se reservaron (o Redis no está disponible); el primer asiento en conflicto si no
+     */
+    public AsientoSeleccionadoDTO reservar(Long eventoId, List<AsientoSeleccionadoDTO> asientos,
+                                           Long usuarioId, int ttlMinutos) {
+        Long resultado = redisService.executeScript(RESERVAR, keys(eventoId, asientos),
+                usuarioId, ttlMinutos * 60_000L);
+
+        if (resultado == null) {
+            log.warn("No se pudo pre-reservar asientos del evento {}, se continúa sin pre-reserva", eventoId);
+            return null;
+        }
+        if (resultado > 0) {
+            AsientoSeleccionadoDTO conflicto = asientos.get(resultado.intValue() - 1);
+            log.info("Asiento {} del evento {} ya pre-reservado por otro usuario", conflicto.getId(), eventoId);
+            return conflicto;
+        }
+
+        log.debug("Pre-reserva de {} asientos evento {} para usuario {}", asientos.size(), eventoId, usuarioId);
+        return null;
+    }
+
+    /**
+     * Libera las pre-reservas del usuario sobre los asientos indicados
+     *
+     * @param eventoId ID local del evento
+     * @param asientos Asientos a liberar
+     * @param usuarioId Dueño de la reserva
+     */
+    public void liberar(Long eventoId, List<AsientoSeleccionadoDTO> asientos, Long usuarioId) {
+        if (usuarioId == null || asientos == null || asientos.isEmpty()) {
+            return;
+        }
+        Long liberados = redisService.executeScript(LIBERAR, keys(eventoId, asientos), usuarioId);
+        log.debug("Pre-reservas liberadas evento {} usuario {}: {}", eventoId, usuarioId, liberados);
+    }
+
+    private List<String> keys(Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        return asientos.stream()
+                .map(a -> RESERVA_KEY_PREFIX + eventoId + ":" + a.getFila() + ":" + a.getColumna())
+                .collect(Collectors.toList());
+    }
+}
@@ -9,18 +9,24 @@ import com.eventos.backend.domain.exception.ResourceNotFoundException;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.UsuarioRepository;
 import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Servicio para gestionar sesiones de compra en Redis.
@@ -34,9 +40,43 @@ public class SesionCompraServiceImpl {
     private final RedisService redisService;
     private final EventoRepository eventoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ObjectMapper objectMapper;
 
     private static final String SESION_PREFIX = "sesion:compra:";
+    private static final String VENTA_PREFIX = "sesion:compra:venta:";
     private static final int MAX_ASIENTOS = 4;
+    private static final int MAX_REINTENTOS_MODIFICACION = 3;
+
+    /**
+     * Marca de venta mientras se registra la venta de la sesión
+     */
+    public static final String VENTA_EN_CURSO = "EN_CURSO";
+
+    /**
+     * KEYS: marca de venta de la sesión. ARGV: valor esperado ("" si no debe existir), valor nuevo, TTL en ms.
+     * Reemplaza la marca solo si tiene el valor esperado (devuelve nil); si no, devuelve el valor actual
+     */
+    private static final RedisScript<String> RECLAMAR_VENTA = RedisScript.of(
+            "local actual = redis.call('GET', KEYS[1]) or ''\n" +
+            "if actual ~= ARGV[1] then return actual end\n" +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])\n" +
+            "return nil", String.class);
+
+    /**
+     * KEYS: sesión. Devuelve el JSON guardado tal cual, para comparar al escribir
+     */
+    private static final RedisScript<String> LEER_SESION = RedisScript.of(
+            "return redis.call('GET', KEYS[1])", String.class);
+
+    /**
+     * KEYS: sesión. ARGV: valor leído, valor nuevo ("" para borrarla).
+     * Escribe solo si nadie modificó la sesión desde la lectura, conservando su TTL
+     */
+    private static final RedisScript<Long> REEMPLAZAR_SESION = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end\n" +
+            "if ARGV[2] == '' then redis.call('DEL', KEYS[1])\n" +
+            "else redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL') end\n" +
+            "return 1", Long.class);
 
     @Value("${sesion.compra.ttl-minutos:30}")
     private int sesionTtlMinutos;
@@ -220,6 +260,29 @@ public class SesionCompraServiceImpl {
         return sesion;
     }
 
+    /**
+     * Quita la marca de asientos bloqueados de la sesión de un usuario cuando su bloqueo vence
+     * No depende del usuario autenticado: se llama desde el barrido de bloqueos vencidos.
+     * Lectura y escritura son atómicas y solo se toca la sesión si sigue siendo la del bloqueo
+     *
+     * @param usuarioId Dueño de la sesión
+     * @param eventoId Evento del bloqueo vencido
+     * @param asientos Asientos del bloqueo vencido (si la sesión ya tiene otros no se toca)
+     */
+    public void desmarcarAsientosBloqueados(Long usuarioId, Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        boolean desmarcada = modificarSiCoincide(usuarioId,
+                sesion -> Boolean.TRUE.equals(sesion.getAsientosBloqueados())
+                        && mismosAsientos(sesion, eventoId, asientos),
+                sesion -> {
+                    sesion.setAsientosBloqueados(false);
+                    sesion.setUpdatedAt(LocalDateTime.now());
+                    return sesion;
+                });
+        if (desmarcada) {
+            log.info("Bloqueo de asientos vencido en sesión de usuario ID: {}", usuarioId);
+        }
+    }
+
     /**
      * Limpia la sesión de compra actual
      */
@@ -231,6 +294,50 @@ public class SesionCompraServiceImpl {
         log.info("Sesión de compra limpiada para usuario: {}", usuario.getUsername());
     }
 
+    /**
+     * Limpia la sesión de un usuario solo si sigue siendo la de una venta dada (mismo evento y asientos)
+     * Se usa desde la confirmación asíncrona: para entonces el usuario puede tener otra selección
+     *
+     * @return true si la sesión se limpió
+     */
+    public boolean limpiarSesionDeVenta(Long usuarioId, Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        boolean limpiada = modificarSiCoincide(usuarioId,
+                sesion -> mismosAsientos(sesion, eventoId, asientos), sesion -> null);
+        if (limpiada) {
+            log.info("Sesión de compra limpiada para usuario ID: {}", usuarioId);
+        }
+        return limpiada;
+    }
+
+    /**
+     * Reclama el registro de la venta de una sesión: cada sesión genera una sola venta,
+     * aunque el cliente reintente sin Idempotency-Key
+     *
+     * @param sesionId Sesión de compra
+     * @param esperado Marca que se reemplaza (null si la sesión todavía no generó ninguna venta)
+     * @return null si se reclamó (o Redis no está disponible); si no, la marca actual:
+     *         el ID de la venta ya registrada o {@link #VENTA_EN_CURSO}
+     */
+    public String reclamarVenta(String sesionId, String esperado) {
+        return redisService.executeScript(RECLAMAR_VENTA, List.of(VENTA_PREFIX + sesionId),
+                esperado != null ? esperado : "", VENTA_EN_CURSO, ventaTtlMs());
+    }
+
+    /**
+     * Asocia a la sesión la venta ya registrada con ella
+     */
+    public void registrarVenta(String sesionId, Long ventaId) {
+        redisService.executeScript(RECLAMAR_VENTA, List.of(VENTA_PREFIX + sesionId),
+                VENTA_EN_CURSO, ventaId, ventaTtlMs());
+    }
+
+    /**
+     * Libera la marca de venta de una sesión si no se llegó a registrar la venta
+     */
+    public void liberarVenta(String sesionId) {
+        redisService.delete(VENTA_PREFIX + sesionId);
+    }
+
     /**
      * Renueva la expiración de la sesión
      */
@@ -262,6 +369,59 @@ public class SesionCompraServiceImpl {
         return SESION_PREFIX + usuarioId;
     }
 
+    private long ventaTtlMs() {
+        return sesionTtlMinutos * 60_000L;
+    }
+
+    /**
+     * Lectura-modificación-escritura de la sesión de un usuario sin pisar cambios concurrentes:
+     * la escritura se aplica solo si la sesión guardada no cambió desde la lectura; si cambió,
+     * se vuelve a leer y a evaluar la condición
+     *
+     * @param coincide Condición que debe cumplir la sesión para modificarla
+     * @param cambio Sesión modificada, o null para borrarla
+     * @return true si se aplicó el cambio
+     */
+    private boolean modificarSiCoincide(Long usuarioId, Predicate<SesionCompraDTO> coincide,
+                                        UnaryOperator<SesionCompraDTO> cambio) {
+        String key = getSesionKey(usuarioId);
+        for (int intento = 0; intento < MAX_REINTENTOS_MODIFICACION; intento++) {
+            String actual = redisService.executeScript(LEER_SESION, List.of(key));
+            if (actual == null) {
+                return false;
+            }
+
+            String nuevo;
+            try {
+                SesionCompraDTO sesion = objectMapper.readValue(actual, SesionCompraDTO.class);
+                if (!coincide.test(sesion)) {
+                    return false;
+                }
+                SesionCompraDTO modificada = cambio.apply(sesion);
+                nuevo = modificada != null ? objectMapper.writeValueAsString(modificada) : "";
+            } catch (JsonProcessingException e) {
+                log.warn("Sesión de compra ilegible para usuario ID {}: {}", usuarioId, e.getMessage());
+                return false;
+            }
+
+            Long resultado = redisService.executeScript(REEMPLAZAR_SESION, List.of(key), actual, nuevo);
+            if (resultado == null) {
+                return false;
+            }
+            if (resultado == 1) {
+                return true;
+            }
+        }
+        log.warn("Sesión de compra de usuario ID {} modificada concurrentemente, no se aplicó el cambio", usuarioId);
+        return false;
+    }
+
+    private static boolean mismosAsientos(SesionCompraDTO sesion, Long eventoId, List<AsientoSeleccionadoDTO> asientos) {
+        return eventoId.equals(sesion.getEventoId())
+                && sesion.getAsientosSeleccionados() != null
+                && new HashSet<>(sesion.getAsientosSeleccionados()).equals(new HashSet<>(asientos));
+    }
+
     private Usuario getUsuarioActual() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
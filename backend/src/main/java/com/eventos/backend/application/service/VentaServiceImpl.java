@@ -5,14 +5,17 @@ import com.eventos.backend.domain.model.Evento;
 import com.eventos.backend.domain.model.Usuario;
 import com.eventos.backend.domain.model.Venta;
 import com.eventos.backend.dto.*;
-import com.eventos.backend.dto.catedra.CatedraAsientoDTO;
-import com.eventos.backend.dto.catedra.CatedraRealizarVentaRequestDTO;
-import com.eventos.backend.dto.catedra.CatedraRealizarVentaResponseDTO;
+import com.eventos.backend.dto.catedra.CatedraVentaResumenDTO;
+import com.eventos.backend.dto.proxy.ProxyAsientoDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientoResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchResponseDTO;
 import com.eventos.backend.domain.exception.BadRequestException;
+import com.eventos.backend.domain.exception.ConflictException;
 import com.eventos.backend.domain.exception.ResourceNotFoundException;
 import com.eventos.backend.infrastructure.mapper.VentaMapper;
 import com.eventos.backend.infrastructure.adapter.output.external.service.CatedraApiClient;
 import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyClient;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
 import com.eventos.backend.application.service.SesionCompraServiceImpl;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
 import com.eventos.backend.infrastructure.adapter.output.persistence.repository.UsuarioRepository;
@@ -24,13 +27,14 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,13 +49,25 @@ public class VentaServiceImpl {
     private final CatedraApiClient catedraApiClient;
     private final SesionCompraServiceImpl sesionCompraService;
     private final ProxyClient proxyClient;
-
-    private static final int MAX_REINTENTOS = 3;
+    private final ConfirmacionVentaOutboxService confirmacionOutboxService;
+    private final EstadisticasVentasService estadisticasService;
+    private final RedisService redisService;
+    private final BloqueoAsientosExpiracionService bloqueoExpiracionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String SYNC_MARCA_AGUA_KEY = "ventas:sync:marca-agua";
+    private static final int LOTE_SINCRONIZACION = 1000;
+    private static final List<Boolean> RESULTADOS_TODOS = List.of(true, false);
+    private static final CursorPagina INICIO_CURSOR =
+            new CursorPagina(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
 
     /**
-     * Realiza una venta completa
+     * Inicia una venta con la sesión de compra actual
+     *
+     * La venta se persiste como pendiente en una transacción corta y la confirmación con cátedra
+     * se delega al pool de checkout: el request no retiene una conexión de la base mientras
+     * espera la respuesta remota. El resultado se consulta con {@link #obtenerEstadoVenta(Long)}.
      */
-    @Transactional
     public VentaDTO realizarVenta() {
         Usuario usuario = getUsuarioActual();
         log.info("Realizando venta para usuario: {}", usuario.getUsername());
@@ -80,28 +96,31 @@ public class VentaServiceImpl {
             throw new BadRequestException("El evento no está disponible");
         }
 
-        // Verificar disponibilidad de asientos en tiempo real
-        for (AsientoSeleccionadoDTO asiento : sesion.getAsientosSeleccionados()) {
-            try {
-                var estadoAsiento = proxyClient.obtenerEstadoAsiento(
-                    evento.getIdExterno(), 
-                    asiento.getFila(), 
-                    asiento.getColumna()
-                );
-                
-                if (estadoAsiento != null && !"BLOQUEADO".equals(estadoAsiento.getEstado())) {
-                    throw new BadRequestException(
-                        "El asiento " + asiento.getFila() + "-" + asiento.getColumna() + 
-                        " ya no está disponible (estado: " + estadoAsiento.getEstado() + ")"
-                    );
-                }
-            } catch (Exception e) {
-                log.warn("No se pudo verificar estado del asiento {}-{}: {}", 
-                    asiento.getFila(), asiento.getColumna(), e.getMessage());
-                // Continuar con la venta aunque no se pueda verificar
+        // Una sola venta por sesión: un reintento sin Idempotency-Key devuelve la venta ya registrada
+        String ventaPrevia = sesionCompraService.reclamarVenta(sesion.getSesionId(), null);
+        if (ventaPrevia != null) {
+            VentaDTO registrada = ventaRegistradaConSesion(ventaPrevia);
+            if (registrada != null) {
+                return registrada;
+            }
+            // La venta anterior de la sesión falló: se permite un nuevo intento
+            if (sesionCompraService.reclamarVenta(sesion.getSesionId(), ventaPrevia) != null) {
+                throw new ConflictException("Hay una venta en curso para esta sesión de compra");
             }
         }
 
+        try {
+            return registrarVenta(usuario, evento, sesion);
+        } catch (RuntimeException e) {
+            sesionCompraService.liberarVenta(sesion.getSesionId());
+            throw e;
+        }
+    }
+
+    private VentaDTO registrarVenta(Usuario usuario, Evento evento, SesionCompraDTO sesion) {
+        // Verificar disponibilidad de asientos en tiempo real (una sola consulta al proxy)
+        verificarAsientosBloqueados(evento, sesion.getAsientosSeleccionados());
+
         // Crear venta local
         Venta venta = Venta.builder()
                 .usuario(usuario)
@@ -124,71 +143,106 @@ public class VentaServiceImpl {
             venta.addAsiento(asiento);
         }
 
-        // Guardar venta local primero
-        venta = ventaRepository.save(venta);
+        // Guardar venta local como pendiente junto con su fila en el outbox
+        venta = confirmacionOutboxService.registrar(venta);
         log.info("Venta local creada: {}", venta.getId());
 
-        // Intentar confirmar con cátedra
-        try {
-            boolean confirmada = confirmarVentaCatedra(venta, sesion);
-            
-            if (confirmada) {
-                venta.setResultado(true);
-                venta.setConfirmadaCatedra(true);
-                venta.setDescripcion("Venta confirmada exitosamente");
-                ventaRepository.save(venta);
-                
-                // Limpiar sesión tras venta exitosa
-                sesionCompraService.limpiarSesion();
-                log.info("Venta confirmada con cátedra: {}", venta.getId());
-            } else {
-                venta.setResultado(false);
-                venta.setDescripcion("Error al confirmar con cátedra");
-                venta.setIntentosSincronizacion(1);
-                ventaRepository.save(venta);
-                log.warn("Venta no confirmada con cátedra: {}", venta.getId());
-            }
-        } catch (Exception e) {
-            log.error("Error al confirmar venta con cátedra: {}", e.getMessage());
-            venta.setResultado(false);
-            venta.setDescripcion("Error: " + e.getMessage());
-            venta.setIntentosSincronizacion(1);
-            ventaRepository.save(venta);
-        }
+        // La sesión queda enviada: el vencimiento del bloqueo ya no debe liberar estos asientos
+        sesionCompraService.registrarVenta(sesion.getSesionId(), venta.getId());
+        bloqueoExpiracionService.cancelar(usuario.getId(), evento.getId(), sesion.getAsientosSeleccionados());
+
+        // Confirmar con cátedra fuera del hilo del request
+        confirmacionOutboxService.confirmarEnSegundoPlano(venta.getId());
 
         return ventaMapper.toDTO(venta);
     }
 
     /**
-     * Confirma la venta con el servicio de cátedra
+     * Venta ya registrada con la sesión, si sigue pendiente o fue confirmada
+     *
+     * @param marca Marca de venta de la sesión (ID de la venta o en curso)
+     * @return La venta, o null si falló y la sesión puede volver a intentarlo
      */
-    private boolean confirmarVentaCatedra(Venta venta, SesionCompraDTO sesion) {
-        if (venta.getEvento().getIdExterno() == null) {
-            log.warn("Evento sin ID externo, no se puede confirmar con cátedra");
-            return false;
+    private VentaDTO ventaRegistradaConSesion(String marca) {
+        if (SesionCompraServiceImpl.VENTA_EN_CURSO.equals(marca) || marca.isEmpty()) {
+            throw new ConflictException("Hay una venta en curso para esta sesión de compra");
+        }
+        Long ventaId = Long.valueOf(marca);
+        Venta venta = ventaRepository.findByIdParaConfirmacion(ventaId).orElse(null);
+        if (venta == null) {
+            return null;
         }
+        if (Boolean.TRUE.equals(venta.getConfirmadaCatedra()) || confirmacionOutboxService.estaPendiente(ventaId)) {
+            log.info("Sesión de compra ya registró la venta {}, devolviendo la existente", ventaId);
+            return ventaMapper.toDTO(venta);
+        }
+        return null;
+    }
 
-        List<CatedraAsientoDTO> asientosCatedra = sesion.getPersonas().stream()
-                .map(p -> CatedraAsientoDTO.builder()
-                        .fila(p.getFila())
-                        .columna(p.getColumna())
-                        .persona(p.getNombre())
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * Obtiene el estado de confirmación de una venta del usuario actual
+     */
+    @Transactional(readOnly = true)
+    public EstadoVentaDTO obtenerEstadoVenta(Long ventaId) {
+        Usuario usuario = getUsuarioActual();
+
+        Venta venta = ventaRepository.findById(ventaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Venta", "id", ventaId));
+
+        if (!venta.getUsuario().getId().equals(usuario.getId())) {
+            throw new BadRequestException("No tiene acceso a esta venta");
+        }
 
-        CatedraRealizarVentaRequestDTO request = CatedraRealizarVentaRequestDTO.builder()
-                .eventoId(venta.getEvento().getIdExterno())
-                .asientos(asientosCatedra)
+        String estado;
+        if (Boolean.TRUE.equals(venta.getConfirmadaCatedra())) {
+            estado = EstadoVentaDTO.CONFIRMADA;
+        } else if (confirmacionOutboxService.estaPendiente(ventaId)) {
+            estado = EstadoVentaDTO.PENDIENTE;
+        } else {
+            estado = EstadoVentaDTO.FALLIDA;
+        }
+
+        return EstadoVentaDTO.builder()
+                .ventaId(venta.getId())
+                .idExterno(venta.getIdExterno())
+                .estado(estado)
+                .descripcion(venta.getDescripcion())
                 .build();
+    }
+
+    /**
+     * Verifica en una sola consulta al proxy que los asientos sigan bloqueados en cátedra.
+     * Si el proxy no está disponible se continúa con la venta sin verificar.
+     */
+    private void verificarAsientosBloqueados(Evento evento, List<AsientoSeleccionadoDTO> asientos) {
+        if (evento.getIdExterno() == null) {
+            return;
+        }
 
-        CatedraRealizarVentaResponseDTO response = catedraApiClient.realizarVenta(request);
+        List<ProxyAsientoDTO> posiciones = asientos.stream()
+                .map(a -> ProxyAsientoDTO.builder()
+                        .fila(a.getFila())
+                        .columna(a.getColumna())
+                        .build())
+                .collect(Collectors.toList());
 
-        if (response != null && Boolean.TRUE.equals(response.getResultado())) {
-            venta.setIdExterno(response.getVentaId());
-            return true;
+        ProxyEstadoAsientosBatchResponseDTO estados =
+                proxyClient.obtenerEstadoAsientos(evento.getIdExterno(), posiciones);
+
+        if (estados == null || estados.getAsientos() == null) {
+            log.warn("No se pudo verificar estado de los asientos del evento {}, continuando con la venta",
+                    evento.getId());
+            return;
         }
 
-        return false;
+        for (ProxyEstadoAsientoResponseDTO estadoAsiento : estados.getAsientos()) {
+            if (!"BLOQUEADO".equalsIgnoreCase(estadoAsiento.getEstado())) {
+                throw new BadRequestException(
+                    "El asiento " + estadoAsiento.getFila() + "-" + estadoAsiento.getColumna() +
+                    " ya no está disponible (estado: " + estadoAsiento.getEstado() + ")"
+                );
+            }
+        }
     }
 
     /**
@@ -204,46 +258,34 @@ public class VentaServiceImpl {
     }
 
     /**
-     * Obtiene el historial de ventas del usuario actual con paginación
+     * Obtiene el historial de ventas del usuario actual, paginado por cursor
      */
     @Transactional(readOnly = true)
-    public Page<VentaDTO> obtenerMisVentasPaginado(Pageable pageable) {
+    public PaginaVentasDTO obtenerMisVentasPaginado(String cursor, int size) {
         Usuario usuario = getUsuarioActual();
-        log.info("Obteniendo ventas paginadas - Usuario: {}, Página: {}", 
-                usuario.getUsername(), pageable.getPageNumber());
-        
-        List<Venta> ventas = ventaRepository.findByUsuarioIdWithAsientos(usuario.getId());
-        List<VentaDTO> ventasDTO = ventaMapper.toDTOList(ventas);
-        
-        return paginateList(ventasDTO, pageable);
+        log.info("Obteniendo ventas paginadas - Usuario: {}, Cursor: {}", usuario.getUsername(), cursor);
+        return obtenerPaginaVentas(usuario.getId(), RESULTADOS_TODOS, true, cursor, size);
     }
 
     /**
-     * Obtiene solo las ventas exitosas del usuario
+     * Obtiene solo las ventas exitosas del usuario, paginadas por cursor
      */
     @Transactional(readOnly = true)
-    public Page<VentaDTO> obtenerVentasExitosas(Pageable pageable) {
+    public PaginaVentasDTO obtenerVentasExitosas(String cursor, int size) {
         Usuario usuario = getUsuarioActual();
         log.info("Obteniendo ventas exitosas para usuario: {}", usuario.getUsername());
-        
-        List<Venta> ventas = ventaRepository.findSuccessfulVentasByUsuario(usuario.getId());
-        List<VentaDTO> ventasDTO = ventaMapper.toDTOList(ventas);
-        
-        return paginateList(ventasDTO, pageable);
+        return obtenerPaginaVentas(usuario.getId(), List.of(true), true, cursor, size);
     }
 
     /**
-     * Obtiene solo las ventas fallidas del usuario
+     * Obtiene solo las ventas fallidas del usuario, paginadas por cursor
+     * Las que siguen pendientes de confirmación (resultado = false mientras el outbox reintenta) no se incluyen
      */
     @Transactional(readOnly = true)
-    public Page<VentaDTO> obtenerVentasFallidas(Pageable pageable) {
+    public PaginaVentasDTO obtenerVentasFallidas(String cursor, int size) {
         Usuario usuario = getUsuarioActual();
         log.info("Obteniendo ventas fallidas para usuario: {}", usuario.getUsername());
-        
-        List<Venta> ventas = ventaRepository.findFailedVentasByUsuario(usuario.getId());
-        List<VentaDTO> ventasDTO = ventaMapper.toDTOList(ventas);
-        
-        return paginateList(ventasDTO, pageable);
+        return obtenerPaginaVentas(usuario.getId(), List.of(false), false, cursor, size);
     }
 
     /**
@@ -266,9 +308,13 @@ public class VentaServiceImpl {
 
     /**
      * Sincroniza ventas con el servicio de cátedra
+     *
+     * Solo considera las ventas remotas posteriores a la marca de agua (mayor ID de cátedra
+     * ya procesado, guardada en Redis) y las confirma localmente con un UPDATE masivo por lotes
+     * de IDs, sin consultar ni guardar venta por venta. Las estadísticas se actualizan con los
+     * totales por evento de cada lote, dentro de su misma transacción.
      */
     @Scheduled(fixedDelayString = "${venta.sync.interval:600000}")
-    @Transactional
     public void sincronizarVentasCatedra() {
         log.info("Sincronizando ventas con cátedra");
         
@@ -280,92 +326,94 @@ public class VentaServiceImpl {
                 return;
             }
 
+            long marcaAgua = obtenerMarcaAguaSincronizacion();
+            List<Long> idsNuevos = ventasCatedra.stream()
+                    .map(CatedraVentaResumenDTO::getVentaId)
+                    .filter(id -> id != null && id > marcaAgua)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            if (idsNuevos.isEmpty()) {
+                log.info("No hay ventas nuevas en cátedra desde la venta {}", marcaAgua);
+                return;
+            }
+
             int sincronizadas = 0;
-            for (var ventaCatedra : ventasCatedra) {
-                if (ventaCatedra.getVentaId() != null) {
-                    var ventaLocal = ventaRepository.findByIdExterno(ventaCatedra.getVentaId());
-                    if (ventaLocal.isPresent()) {
-                        Venta venta = ventaLocal.get();
-                        if (!venta.getConfirmadaCatedra()) {
-                            venta.setConfirmadaCatedra(true);
-                            venta.setResultado(true);
-                            venta.setDescripcion("Sincronizado desde cátedra");
-                            ventaRepository.save(venta);
-                            sincronizadas++;
-                        }
-                    }
-                }
+            for (int i = 0; i < idsNuevos.size(); i += LOTE_SINCRONIZACION) {
+                List<Long> lote = idsNuevos.subList(i, Math.min(i + LOTE_SINCRONIZACION, idsNuevos.size()));
+                Integer confirmadas = transactionTemplate.execute(status -> confirmarLoteCatedra(lote));
+                sincronizadas += confirmadas != null ? confirmadas : 0;
             }
-            
-            log.info("Sincronización completada: {} ventas actualizadas", sincronizadas);
+
+            long nuevaMarca = idsNuevos.stream().mapToLong(Long::longValue).max().orElse(marcaAgua);
+            redisService.savePermanent(SYNC_MARCA_AGUA_KEY, nuevaMarca);
+
+            log.info("Sincronización completada: {} ventas nuevas en cátedra, {} actualizadas (marca de agua: {})",
+                    idsNuevos.size(), sincronizadas, nuevaMarca);
             
         } catch (Exception e) {
             log.error("Error al sincronizar ventas con cátedra: {}", e.getMessage());
         }
     }
 
-    private <T> Page<T> paginateList(List<T> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), list.size());
-        
-        if (start > list.size()) {
-            return new PageImpl<>(List.of(), pageable, list.size());
+    /**
+     * Confirma un lote de ventas informadas por cátedra y suma sus totales por evento a las
+     * estadísticas en la misma transacción. Las ventas quedan bloqueadas entre la lectura
+     * de los totales y el UPDATE, así nada se cuenta dos veces
+     */
+    private int confirmarLoteCatedra(List<Long> idsExternos) {
+        List<Long> ids = ventaRepository.bloquearNoConfirmadasPorIdsExternos(idsExternos);
+        if (ids.isEmpty()) {
+            return 0;
         }
-        
-        return new PageImpl<>(list.subList(start, end), pageable, list.size());
+
+        for (VentaRepository.ConfirmacionesEvento totales : ventaRepository.resumirPorEvento(ids)) {
+            estadisticasService.registrarConfirmadasSincronizacion(totales.getEventoId(),
+                    totales.getVentas(), totales.getAsientos(), totales.getRecaudacion());
+        }
+        return ventaRepository.confirmarPorIds(ids, "Sincronizado desde cátedra");
+    }
+
+    private long obtenerMarcaAguaSincronizacion() {
+        Object marca = redisService.get(SYNC_MARCA_AGUA_KEY);
+        return marca instanceof Number ? ((Number) marca).longValue() : 0L;
     }
 
     /**
-     * Reintenta confirmar ventas pendientes con cátedra
+     * Arma una página del historial en dos consultas: primero los IDs de la página por cursor
+     * (fecha_venta, id), luego esas ventas con sus asientos. Se pide un ID de más para saber
+     * si hay página siguiente.
      */
-    @Scheduled(fixedDelayString = "${venta.reintento.interval:300000}")
-    @Transactional
-    public void reintentarVentasPendientes() {
-        List<Venta> ventasPendientes = ventaRepository.findVentasForRetry(MAX_REINTENTOS);
-        
-        if (ventasPendientes.isEmpty()) {
-            return;
+    private PaginaVentasDTO obtenerPaginaVentas(Long usuarioId, List<Boolean> resultados, boolean incluirPendientes,
+                                                String cursor, int size) {
+        int tamanio = CursorPagina.limitarTamanio(size);
+        CursorPagina desde = CursorPagina.decodificar(cursor, INICIO_CURSOR);
+
+        List<Long> ids = ventaRepository.findIdsPaginaByUsuario(
+                usuarioId, resultados, incluirPendientes, desde.getFecha(), desde.getId(),
+                PageRequest.of(0, tamanio + 1));
+        boolean hayMas = ids.size() > tamanio;
+        if (hayMas) {
+            ids = ids.subList(0, tamanio);
         }
 
-        log.info("Reintentando {} ventas pendientes", ventasPendientes.size());
-
-        for (Venta venta : ventasPendientes) {
-            try {
-                // Reconstruir datos de sesión para el reintento
-                SesionCompraDTO sesionFake = SesionCompraDTO.builder()
-                        .eventoId(venta.getEvento().getId())
-                        .eventoIdExterno(venta.getEvento().getIdExterno())
-                        .personas(venta.getAsientos().stream()
-                                .map(a -> PersonaAsientoDTO.builder()
-                                        .fila(a.getFila())
-                                        .columna(a.getColumna())
-                                        .nombre(a.getNombrePersona())
-                                        .build())
-                                .collect(Collectors.toList()))
-                        .build();
-
-                boolean confirmada = confirmarVentaCatedra(venta, sesionFake);
-                
-                venta.setIntentosSincronizacion(venta.getIntentosSincronizacion() + 1);
-                
-                if (confirmada) {
-                    venta.setResultado(true);
-                    venta.setConfirmadaCatedra(true);
-                    venta.setDescripcion("Venta confirmada en reintento");
-                    log.info("Venta {} confirmada en reintento", venta.getId());
-                } else {
-                    venta.setDescripcion("Reintento " + venta.getIntentosSincronizacion() + " fallido");
-                }
-                
-                ventaRepository.save(venta);
-                
-            } catch (Exception e) {
-                log.error("Error al reintentar venta {}: {}", venta.getId(), e.getMessage());
-                venta.setIntentosSincronizacion(venta.getIntentosSincronizacion() + 1);
-                venta.setDescripcion("Error en reintento: " + e.getMessage());
-                ventaRepository.save(venta);
-            }
+        List<Venta> ventas = ids.isEmpty() ? List.of() : ventaRepository.findByIdInWithAsientos(ids);
+
+        // Respetar el orden de la primera consulta
+        Map<Long, Venta> porId = ventas.stream().collect(Collectors.toMap(Venta::getId, v -> v));
+        List<Venta> ordenadas = ids.stream().map(porId::get).filter(Objects::nonNull).collect(Collectors.toList());
+
+        String siguienteCursor = null;
+        if (hayMas && !ordenadas.isEmpty()) {
+            Venta ultima = ordenadas.get(ordenadas.size() - 1);
+            siguienteCursor = new CursorPagina(ultima.getFechaVenta(), ultima.getId()).codificar();
         }
+
+        return PaginaVentasDTO.builder()
+                .ventas(ventaMapper.toDTOList(ordenadas))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
     }
 
     private Usuario getUsuarioActual() {
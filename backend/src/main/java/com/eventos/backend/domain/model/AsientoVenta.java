@@ -17,7 +17,8 @@ import lombok.NoArgsConstructor;
 public class AsientoVenta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asientos_venta_seq")
+    @SequenceGenerator(name = "asientos_venta_seq", sequenceName = "asientos_venta_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,42 @@
+package com.eventos.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores de ventas de un evento
+ * Se actualizan de forma incremental con cada venta, sin recorrer la tabla de ventas
+ */
+@Entity
+@Table(name = "estadisticas_ventas_evento")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticaVentasEvento {
+
+    @Id
+    @Column(name = "evento_id")
+    private Long eventoId;
+
+    @Column(name = "asientos_vendidos", nullable = false)
+    private Long asientosVendidos;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal recaudacion;
+
+    @Column(name = "ventas_confirmadas", nullable = false)
+    private Long ventasConfirmadas;
+
+    @Column(name = "ventas_pendientes", nullable = false)
+    private Long ventasPendientes;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -15,7 +15,8 @@ import java.util.List;
 @Table(name = "eventos", indexes = {
     @Index(name = "idx_eventos_fecha", columnList = "fecha"),
     @Index(name = "idx_eventos_activo", columnList = "activo"),
-    @Index(name = "idx_eventos_tipo", columnList = "tipo_evento_id")
+    @Index(name = "idx_eventos_tipo", columnList = "tipo_evento_id"),
+    @Index(name = "idx_eventos_activo_fecha", columnList = "activo, fecha, id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,49 @@
+package com.eventos.backend.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Venta pendiente de confirmación con cátedra (patrón outbox)
+ * Se crea en la misma transacción que la venta y se borra cuando cátedra la confirma
+ */
+@Entity
+@Table(name = "outbox_confirmacion_venta", indexes = {
+    @Index(name = "idx_outbox_proximo_intento", columnList = "proximo_intento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxConfirmacionVenta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "venta_id", nullable = false, unique = true)
+    private Long ventaId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer intentos = 0;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 @Entity
 @Table(name = "ventas", indexes = {
     @Index(name = "idx_ventas_usuario", columnList = "usuario_id"),
+    @Index(name = "idx_ventas_usuario_fecha", columnList = "usuario_id, fecha_venta DESC, id DESC"),
     @Index(name = "idx_ventas_evento", columnList = "evento_id"),
     @Index(name = "idx_ventas_confirmada", columnList = "confirmada_catedra")
 })
@@ -24,7 +25,8 @@ import java.util.List;
 public class Venta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ventas_seq")
+    @SequenceGenerator(name = "ventas_seq", sequenceName = "ventas_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "id_externo")
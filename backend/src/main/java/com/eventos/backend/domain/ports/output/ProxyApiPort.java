@@ -1,8 +1,12 @@
 package com.eventos.backend.domain.ports.output;
 
+import com.eventos.backend.dto.proxy.ProxyAsientoDTO;
 import com.eventos.backend.dto.proxy.ProxyEstadoAsientoResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchResponseDTO;
 import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
 
+import java.util.List;
+
 /**
  * Puerto de salida para comunicación con el servicio Proxy
  * Define las operaciones de comunicación externa que el dominio necesita
@@ -18,6 +22,14 @@ public interface ProxyApiPort {
      */
     ProxyEstadoAsientoResponseDTO obtenerEstadoAsiento(Long eventoId, Integer fila, Integer columna);
     
+    /**
+     * Obtiene el estado de varios asientos de un evento en una sola consulta
+     * @param eventoId ID del evento
+     * @param asientos posiciones de los asientos a consultar
+     * @return estados de los asientos en el orden solicitado
+     */
+    ProxyEstadoAsientosBatchResponseDTO obtenerEstadoAsientos(Long eventoId, List<ProxyAsientoDTO> asientos);
+    
     /**
      * Obtiene el mapa completo de asientos desde Redis de Cátedra
      * @param eventoId ID del evento
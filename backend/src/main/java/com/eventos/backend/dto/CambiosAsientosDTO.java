@@ -0,0 +1,28 @@
+package com.eventos.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los asientos que cambiaron desde una versión del mapa
+ *
+ * Si la versión pedida ya no está en el registro de cambios, {@code completo} es true
+ * y se envía el mapa completo en {@code mapa} en lugar de {@code cambios}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CambiosAsientosDTO {
+
+    private Long eventoId;
+    private Long desde;
+    private Long version;
+    private Boolean completo;
+    private List<EstadoAsientoDTO> cambios;
+    private MapaAsientosDTO mapa;
+}
@@ -0,0 +1,58 @@
+package com.eventos.backend.dto;
+
+import com.eventos.backend.domain.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición (fecha, id) de la paginación por cursor de eventos y ventas
+ *
+ * Viaja al cliente como texto opaco (base64url de "fecha|id") en siguienteCursor
+ * y vuelve en el parámetro cursor de la página siguiente.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPagina {
+
+    public static final int MAX_TAMANIO_PAGINA = 100;
+
+    private final LocalDateTime fecha;
+    private final Long id;
+
+    /**
+     * Tamaño de página pedido, acotado entre 1 y {@link #MAX_TAMANIO_PAGINA}
+     */
+    public static int limitarTamanio(int pedido) {
+        return Math.max(1, Math.min(pedido, MAX_TAMANIO_PAGINA));
+    }
+
+    /**
+     * Decodifica el cursor recibido. Sin cursor (primera página) devuelve el inicio dado
+     *
+     * @throws BadRequestException si el cursor no es uno generado por {@link #codificar()}
+     */
+    public static CursorPagina decodificar(String cursor, CursorPagina inicio) {
+        if (cursor == null || cursor.isBlank()) {
+            return inicio;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException(valor);
+            }
+            return new CursorPagina(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    public String codificar() {
+        String valor = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
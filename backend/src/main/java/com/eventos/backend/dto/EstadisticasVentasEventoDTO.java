@@ -0,0 +1,29 @@
+package com.eventos.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas de ventas de un evento (GET /admin/estadisticas/ventas)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasVentasEventoDTO {
+
+    private Long eventoId;
+    private Long asientosVendidos;
+    private BigDecimal recaudacion;
+    private Long ventasConfirmadas;
+    private Long ventasPendientes;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime actualizado;
+}
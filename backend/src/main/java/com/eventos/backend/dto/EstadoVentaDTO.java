@@ -0,0 +1,30 @@
+package com.eventos.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado de la confirmación de una venta con cátedra (GET /api/ventas/{id}/estado)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoVentaDTO {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String CONFIRMADA = "CONFIRMADA";
+    public static final String FALLIDA = "FALLIDA";
+
+    private Long ventaId;
+    private Long idExterno;
+
+    /**
+     * PENDIENTE mientras se espera la respuesta de cátedra, luego CONFIRMADA o FALLIDA
+     */
+    private String estado;
+
+    private String descripcion;
+}
@@ -0,0 +1,45 @@
+package com.eventos.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa el mapa de asientos de un evento en formato compacto
+ *
+ * En lugar de un objeto por asiento, los estados se empaquetan a 2 bits por asiento:
+ * - Asiento i = (fila - 1) * totalColumnas + (columna - 1)
+ * - Byte i / 4, bits (i % 4) * 2 y siguiente (el primer asiento en los bits menos significativos)
+ * - En JSON, {@code estados} se serializa en base64
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapaAsientosCompactoDTO {
+
+    private Long eventoId;
+    /**
+     * Versión del mapa, para pedir luego solo los cambios (ver {@link CambiosAsientosDTO})
+     */
+    private Long version;
+    private Integer totalFilas;
+    private Integer totalColumnas;
+    private Integer asientosTotales;
+    private Integer asientosLibres;
+    private Integer asientosOcupados;
+    private Integer asientosBloqueados;
+    private byte[] estados;
+
+    /**
+     * true si el proxy no respondió y el mapa solo muestra como ocupados los asientos
+     * vendidos por nosotros; no se cachea (sin ETag)
+     */
+    private Boolean degradado;
+
+    public static final int CODIGO_LIBRE = 0;
+    public static final int CODIGO_BLOQUEADO = 1;
+    public static final int CODIGO_OCUPADO = 2;
+    public static final int CODIGO_SELECCIONADO = 3;
+}
@@ -17,6 +17,10 @@ import java.util.List;
 public class MapaAsientosDTO {
 
     private Long eventoId;
+    /**
+     * Versión del mapa, para pedir luego solo los cambios (ver {@link CambiosAsientosDTO})
+     */
+    private Long version;
     private Integer totalFilas;
     private Integer totalColumnas;
     private Integer asientosTotales;
@@ -24,5 +28,11 @@ public class MapaAsientosDTO {
     private Integer asientosOcupados;
     private Integer asientosBloqueados;
     private List<EstadoAsientoDTO> asientos;
+
+    /**
+     * true si el proxy no respondió y el mapa solo muestra como ocupados los asientos
+     * vendidos por nosotros; no se cachea (sin ETag)
+     */
+    private Boolean degradado;
 }
 
@@ -0,0 +1,28 @@
+package com.eventos.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del catálogo de eventos con paginación por cursor
+ * Para la página siguiente se envía siguienteCursor en el parámetro cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaEventosDTO {
+
+    private List<EventoResumenDTO> eventos;
+
+    /**
+     * Cursor opaco de la página siguiente, o null si no hay más eventos
+     */
+    private String siguienteCursor;
+
+    private Boolean hayMas;
+}
@@ -0,0 +1,28 @@
+package com.eventos.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial de ventas con paginación por cursor
+ * Para la página siguiente se envía siguienteCursor en el parámetro cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaVentasDTO {
+
+    private List<VentaDTO> ventas;
+
+    /**
+     * Cursor opaco de la página siguiente, o null si no hay más ventas
+     */
+    private String siguienteCursor;
+
+    private Boolean hayMas;
+}
@@ -0,0 +1,18 @@
+package com.eventos.backend.dto.proxy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para identificar un asiento (fila y columna) en consultas al proxy
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProxyAsientoDTO {
+    private Integer fila;
+    private Integer columna;
+}
@@ -0,0 +1,20 @@
+package com.eventos.backend.dto.proxy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para solicitar al proxy el estado de varios asientos de un evento
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProxyEstadoAsientosBatchRequestDTO {
+    private Long eventoId;
+    private List<ProxyAsientoDTO> asientos;
+}
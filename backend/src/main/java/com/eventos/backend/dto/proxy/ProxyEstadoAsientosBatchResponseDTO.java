@@ -0,0 +1,22 @@
+package com.eventos.backend.dto.proxy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para respuesta de consulta de estado de varios asientos desde el proxy
+ * Los asientos vienen en el mismo orden en que fueron solicitados
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProxyEstadoAsientosBatchResponseDTO {
+    private Long eventoId;
+    private List<ProxyEstadoAsientoResponseDTO> asientos;
+    private String timestamp;
+}
@@ -0,0 +1,35 @@
+package com.eventos.backend.infrastructure.adapter.input.redis;
+
+import com.eventos.backend.application.service.MapaAsientosPushService;
+import com.eventos.backend.application.service.MapaAsientosVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Listener del canal de Redis donde se publican los cambios de asientos
+ * Reenvía cada cambio a los clientes suscritos en esta instancia
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CambiosAsientosRedisListener implements MessageListener {
+
+    private final MapaAsientosVersionService versionService;
+    private final MapaAsientosPushService pushService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String contenido = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Cambio de asientos recibido por Redis: {}", contenido);
+
+        MapaAsientosVersionService.CambiosDesdeVersion cambios = versionService.parsearCambiosPublicados(contenido);
+        if (cambios != null) {
+            pushService.publicar(cambios);
+        }
+    }
+}
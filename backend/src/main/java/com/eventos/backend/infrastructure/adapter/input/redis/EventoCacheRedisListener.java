@@ -0,0 +1,29 @@
+package com.eventos.backend.infrastructure.adapter.input.redis;
+
+import com.eventos.backend.infrastructure.adapter.output.external.service.EventoCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Listener del canal de Redis donde se publican las invalidaciones de la cache de eventos
+ * Descarta las entradas afectadas de la cache en memoria de esta instancia
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventoCacheRedisListener implements MessageListener {
+
+    private final EventoCache eventoCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String contenido = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Invalidación de cache de eventos recibida por Redis: {}", contenido);
+        eventoCache.aplicarInvalidacion(contenido);
+    }
+}
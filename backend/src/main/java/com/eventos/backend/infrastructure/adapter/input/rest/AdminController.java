@@ -1,5 +1,7 @@
 package com.eventos.backend.infrastructure.adapter.input.rest;
 
+import com.eventos.backend.application.service.EstadisticasVentasService;
+import com.eventos.backend.dto.EstadisticasVentasEventoDTO;
 import com.eventos.backend.infrastructure.adapter.output.external.service.EventoSyncService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,6 +20,7 @@ import java.util.Map;
 public class AdminController {
 
     private final EventoSyncService eventoSyncService;
+    private final EstadisticasVentasService estadisticasVentasService;
 
     /**
      * POST /admin/sync/eventos
@@ -105,5 +109,52 @@ public class AdminController {
             return ResponseEntity.status(500).body(response);
         }
     }
-}
 
+    /**
+     * GET /admin/estadisticas/ventas
+     * Estadísticas de ventas de todos los eventos
+     */
+    @GetMapping("/estadisticas/ventas")
+    public ResponseEntity<List<EstadisticasVentasEventoDTO>> obtenerEstadisticasVentas() {
+        return ResponseEntity.ok(estadisticasVentasService.obtenerTodas());
+    }
+
+    /**
+     * GET /admin/estadisticas/ventas/eventos/{eventoId}
+     * Estadísticas de ventas de un evento
+     */
+    @GetMapping("/estadisticas/ventas/eventos/{eventoId}")
+    public ResponseEntity<EstadisticasVentasEventoDTO> obtenerEstadisticasVentasEvento(@PathVariable Long eventoId) {
+        return ResponseEntity.ok(estadisticasVentasService.obtenerPorEvento(eventoId));
+    }
+
+    /**
+     * POST /admin/estadisticas/ventas/reconstruir
+     * Recalcular las estadísticas de ventas desde las tablas de ventas
+     */
+    @PostMapping("/estadisticas/ventas/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirEstadisticasVentas() {
+        log.info("Reconstrucción manual de estadísticas de ventas solicitada");
+
+        try {
+            int eventos = estadisticasVentasService.reconstruir();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("eventos", eventos);
+            response.put("timestamp", LocalDateTime.now());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("Error al reconstruir estadísticas de ventas: {}", e.getMessage(), e);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("timestamp", LocalDateTime.now());
+
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+}
@@ -2,13 +2,22 @@ package com.eventos.backend.infrastructure.adapter.input.rest;
 
 import com.eventos.backend.dto.BloquearAsientosRequestDTO;
 import com.eventos.backend.dto.BloquearAsientosResponseDTO;
+import com.eventos.backend.dto.CambiosAsientosDTO;
+import com.eventos.backend.dto.MapaAsientosCompactoDTO;
 import com.eventos.backend.dto.MapaAsientosDTO;
 import com.eventos.backend.application.service.AsientoServiceImpl;
+import com.eventos.backend.application.service.IdempotenciaService;
+import com.eventos.backend.application.service.MapaAsientosPushService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -22,29 +31,106 @@ import java.util.Map;
 public class AsientoController {
 
     private final AsientoServiceImpl asientoService;
+    private final MapaAsientosPushService pushService;
+    private final IdempotenciaService idempotenciaService;
 
     /**
      * GET /api/asientos/evento/{eventoId}
      * Obtiene el mapa de asientos de un evento
+     * Responde 304 si el ETag enviado en If-None-Match sigue vigente
      */
     @GetMapping("/evento/{eventoId}")
-    public ResponseEntity<MapaAsientosDTO> obtenerMapaAsientos(@PathVariable Long eventoId) {
+    public ResponseEntity<MapaAsientosDTO> obtenerMapaAsientos(
+            @PathVariable Long eventoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("GET /api/asientos/evento/{}", eventoId);
+        String etag = asientoService.calcularEtagMapa(eventoId, "json");
+        if (etagCoincide(etag, ifNoneMatch)) {
+            return noModificado(etag);
+        }
         MapaAsientosDTO mapa = asientoService.obtenerMapaAsientos(eventoId);
-        return ResponseEntity.ok(mapa);
+        return respuestaMapa(etag, mapa.getDegradado()).body(mapa);
+    }
+
+    /**
+     * GET /api/asientos/evento/{eventoId}?formato=compacto
+     * Obtiene el mapa de asientos empaquetado a 2 bits por asiento (estados en base64)
+     */
+    @GetMapping(value = "/evento/{eventoId}", params = "formato=compacto")
+    public ResponseEntity<MapaAsientosCompactoDTO> obtenerMapaAsientosCompacto(
+            @PathVariable Long eventoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("GET /api/asientos/evento/{}?formato=compacto", eventoId);
+        String etag = asientoService.calcularEtagMapa(eventoId, "compacto");
+        if (etagCoincide(etag, ifNoneMatch)) {
+            return noModificado(etag);
+        }
+        MapaAsientosCompactoDTO mapa = asientoService.obtenerMapaAsientosCompacto(eventoId);
+        return respuestaMapa(etag, mapa.getDegradado()).body(mapa);
+    }
+
+    /**
+     * GET /api/asientos/evento/{eventoId}?formato=binario
+     * Obtiene los estados empaquetados como application/octet-stream;
+     * las dimensiones viajan en los headers X-Mapa-Filas y X-Mapa-Columnas
+     */
+    @GetMapping(value = "/evento/{eventoId}", params = "formato=binario",
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> obtenerMapaAsientosBinario(
+            @PathVariable Long eventoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("GET /api/asientos/evento/{}?formato=binario", eventoId);
+        String etag = asientoService.calcularEtagMapa(eventoId, "binario");
+        if (etagCoincide(etag, ifNoneMatch)) {
+            return noModificado(etag);
+        }
+        MapaAsientosCompactoDTO mapa = asientoService.obtenerMapaAsientosCompacto(eventoId);
+        return respuestaMapa(etag, mapa.getDegradado())
+                .header("X-Mapa-Degradado", String.valueOf(Boolean.TRUE.equals(mapa.getDegradado())))
+                .header("X-Mapa-Filas", String.valueOf(mapa.getTotalFilas()))
+                .header("X-Mapa-Columnas", String.valueOf(mapa.getTotalColumnas()))
+                .body(mapa.getEstados());
+    }
+
+    /**
+     * GET /api/asientos/evento/{eventoId}/cambios?desde={version}
+     * Obtiene solo los asientos que cambiaron desde la versión indicada
+     * (la versión del mapa viaja en su ETag y en la respuesta de este endpoint)
+     */
+    @GetMapping("/evento/{eventoId}/cambios")
+    public ResponseEntity<CambiosAsientosDTO> obtenerCambiosAsientos(
+            @PathVariable Long eventoId,
+            @RequestParam Long desde) {
+        log.info("GET /api/asientos/evento/{}/cambios?desde={}", eventoId, desde);
+        CambiosAsientosDTO cambios = asientoService.obtenerCambiosAsientos(eventoId, desde);
+        return ResponseEntity.ok(cambios);
+    }
+
+    /**
+     * GET /api/asientos/evento/{eventoId}/stream
+     * Stream Server-Sent Events con los cambios de asientos del evento a medida que ocurren
+     * No consulta la base de datos: la conexión queda abierta sin retener recursos del pool
+     */
+    @GetMapping(value = "/evento/{eventoId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirCambiosAsientos(@PathVariable Long eventoId) {
+        log.info("GET /api/asientos/evento/{}/stream", eventoId);
+        return pushService.suscribir(eventoId);
     }
 
     /**
      * POST /api/asientos/bloquear
      * Bloquea asientos seleccionados
+     * Con Idempotency-Key, los reintentos devuelven el resultado del primer bloqueo
      */
     @PostMapping("/bloquear")
     public ResponseEntity<BloquearAsientosResponseDTO> bloquearAsientos(
-            @Valid @RequestBody BloquearAsientosRequestDTO request) {
+            @Valid @RequestBody BloquearAsientosRequestDTO request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("POST /api/asientos/bloquear - evento: {}, cantidad: {}", 
                 request.getEventoId(), request.getAsientos().size());
-        BloquearAsientosResponseDTO response = asientoService.bloquearAsientos(
-                request.getEventoId(), request.getAsientos());
+        BloquearAsientosResponseDTO response = idempotenciaService.ejecutar("bloquear", idempotencyKey,
+                BloquearAsientosResponseDTO.class,
+                () -> asientoService.bloquearAsientos(request.getEventoId(), request.getAsientos()));
         return ResponseEntity.ok(response);
     }
 
@@ -58,5 +144,41 @@ public class AsientoController {
         asientoService.liberarAsientos();
         return ResponseEntity.ok(Map.of("mensaje", "Asientos liberados"));
     }
-}
 
+    /**
+     * Compara el ETag del mapa con If-None-Match sin consultar al proxy (comparación débil)
+     */
+    private static boolean etagCoincide(String etag, String ifNoneMatch) {
+        if (etag == null || ifNoneMatch == null) {
+            return false;
+        }
+        String valor = sinPrefijoDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String recibido = candidato.trim();
+            if ("*".equals(recibido) || sinPrefijoDebil(recibido).equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * Respuesta con el ETag del mapa. Un mapa degradado (proxy caído) se envía sin ETag y con
+     * no-store: si llevara el ETag de la versión, el cliente lo seguiría revalidando con 304
+     * después de que el proxy se recupere
+     */
+    private static ResponseEntity.BodyBuilder respuestaMapa(String etag, Boolean degradado) {
+        if (Boolean.TRUE.equals(degradado)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore());
+        }
+        return etag != null ? ResponseEntity.ok().eTag(etag) : ResponseEntity.ok();
+    }
+}
@@ -2,6 +2,7 @@ package com.eventos.backend.infrastructure.adapter.input.rest;
 
 import com.eventos.backend.dto.EventoDetalleDTO;
 import com.eventos.backend.dto.EventoResumenDTO;
+import com.eventos.backend.dto.PaginaEventosDTO;
 import com.eventos.backend.application.service.EventoServiceImpl;
 import com.eventos.backend.infrastructure.adapter.output.external.service.EventoSyncService;
 import lombok.RequiredArgsConstructor;
@@ -92,6 +93,20 @@ public class EventoController {
         return ResponseEntity.ok(eventos);
     }
 
+    /**
+     * GET /api/eventos/public/cursor
+     * Obtener eventos activos paginados por cursor (público)
+     * La primera página se pide sin cursor; las siguientes con el siguienteCursor de la respuesta
+     */
+    @GetMapping("/public/cursor")
+    public ResponseEntity<PaginaEventosDTO> getEventosPorCursorPublic(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        log.info("GET /api/eventos/public/cursor - size: {}", size);
+        return ResponseEntity.ok(eventoService.findAllActivePorCursor(cursor, size));
+    }
+
     // ==================== ENDPOINTS AUTENTICADOS ====================
 
     /**
@@ -116,6 +131,19 @@ public class EventoController {
         return ResponseEntity.ok(eventos);
     }
 
+    /**
+     * GET /api/eventos/cursor
+     * Obtener eventos activos paginados por cursor (autenticado)
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaEventosDTO> getEventosPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        log.info("GET /api/eventos/cursor - size: {}", size);
+        return ResponseEntity.ok(eventoService.findAllActivePorCursor(cursor, size));
+    }
+
     /**
      * GET /api/eventos/{id}
      * Obtener detalle de un evento por ID (autenticado)
@@ -140,7 +168,7 @@ public class EventoController {
 
     /**
      * GET /api/eventos/search
-     * Buscar eventos por título
+     * Buscar eventos por texto (título, resumen y descripción), ordenados por relevancia
      */
     @GetMapping("/search")
     public ResponseEntity<Page<EventoResumenDTO>> searchEventos(
@@ -150,7 +178,7 @@ public class EventoController {
         
         log.info("GET /api/eventos/search - q: '{}', page: {}, size: {}", q, page, size);
         Pageable pageable = PageRequest.of(page, size);
-        Page<EventoResumenDTO> eventos = eventoService.searchByTitulo(q, pageable);
+        Page<EventoResumenDTO> eventos = eventoService.buscar(q, pageable);
         return ResponseEntity.ok(eventos);
     }
 
@@ -1,15 +1,16 @@
 package com.eventos.backend.infrastructure.adapter.input.rest;
 
+import com.eventos.backend.dto.EstadoVentaDTO;
+import com.eventos.backend.dto.PaginaVentasDTO;
 import com.eventos.backend.dto.VentaDTO;
+import com.eventos.backend.application.service.IdempotenciaService;
 import com.eventos.backend.application.service.VentaServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -22,16 +23,33 @@ import java.util.List;
 public class VentaController {
 
     private final VentaServiceImpl ventaService;
+    private final IdempotenciaService idempotenciaService;
 
     /**
      * POST /api/ventas
-     * Realiza una venta con la sesión de compra actual
+     * Inicia una venta con la sesión de compra actual
+     * Responde 202 con la venta pendiente; la confirmación con cátedra se consulta en Location
+     * Con Idempotency-Key, los reintentos devuelven la misma venta en lugar de crear otra
      */
     @PostMapping
-    public ResponseEntity<VentaDTO> realizarVenta() {
+    public ResponseEntity<VentaDTO> realizarVenta(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("POST /api/ventas");
-        VentaDTO venta = ventaService.realizarVenta();
-        return ResponseEntity.ok(venta);
+        VentaDTO venta = idempotenciaService.ejecutar("venta", idempotencyKey, VentaDTO.class,
+                ventaService::realizarVenta);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/ventas/" + venta.getId() + "/estado"))
+                .body(venta);
+    }
+
+    /**
+     * GET /api/ventas/{id}/estado
+     * Estado de la confirmación de una venta: PENDIENTE, CONFIRMADA o FALLIDA
+     */
+    @GetMapping("/{id}/estado")
+    public ResponseEntity<EstadoVentaDTO> obtenerEstadoVenta(@PathVariable Long id) {
+        log.debug("GET /api/ventas/{}/estado", id);
+        return ResponseEntity.ok(ventaService.obtenerEstadoVenta(id));
     }
 
     /**
@@ -47,44 +65,39 @@ public class VentaController {
 
     /**
      * GET /api/ventas/paginado
-     * Obtiene el historial de ventas con paginación
+     * Obtiene el historial de ventas paginado por cursor
+     * La primera página se pide sin cursor; las siguientes con el siguienteCursor recibido
      */
     @GetMapping("/paginado")
-    public ResponseEntity<Page<VentaDTO>> obtenerMisVentasPaginado(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<PaginaVentasDTO> obtenerMisVentasPaginado(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("GET /api/ventas/paginado - page: {}, size: {}", page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VentaDTO> ventas = ventaService.obtenerMisVentasPaginado(pageable);
-        return ResponseEntity.ok(ventas);
+        log.info("GET /api/ventas/paginado - cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(ventaService.obtenerMisVentasPaginado(cursor, size));
     }
 
     /**
      * GET /api/ventas/exitosas
-     * Obtiene solo las ventas exitosas
+     * Obtiene solo las ventas exitosas, paginadas por cursor
      */
     @GetMapping("/exitosas")
-    public ResponseEntity<Page<VentaDTO>> obtenerVentasExitosas(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<PaginaVentasDTO> obtenerVentasExitosas(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("GET /api/ventas/exitosas - page: {}, size: {}", page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VentaDTO> ventas = ventaService.obtenerVentasExitosas(pageable);
-        return ResponseEntity.ok(ventas);
+        log.info("GET /api/ventas/exitosas - cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(ventaService.obtenerVentasExitosas(cursor, size));
     }
 
     /**
      * GET /api/ventas/fallidas
-     * Obtiene solo las ventas fallidas
+     * Obtiene solo las ventas fallidas, paginadas por cursor
      */
     @GetMapping("/fallidas")
-    public ResponseEntity<Page<VentaDTO>> obtenerVentasFallidas(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<PaginaVentasDTO> obtenerVentasFallidas(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("GET /api/ventas/fallidas - page: {}, size: {}", page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<VentaDTO> ventas = ventaService.obtenerVentasFallidas(pageable);
-        return ResponseEntity.ok(ventas);
+        log.info("GET /api/ventas/fallidas - cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(ventaService.obtenerVentasFallidas(cursor, size));
     }
 
     /**
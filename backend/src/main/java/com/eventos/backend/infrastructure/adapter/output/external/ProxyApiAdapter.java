@@ -1,12 +1,16 @@
 package com.eventos.backend.infrastructure.adapter.output.external;
 
 import com.eventos.backend.domain.ports.output.ProxyApiPort;
+import com.eventos.backend.dto.proxy.ProxyAsientoDTO;
 import com.eventos.backend.dto.proxy.ProxyEstadoAsientoResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchResponseDTO;
 import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
 import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Adaptador para comunicación con servicio Proxy
  * Implementa el puerto de salida usando ProxyClient
@@ -22,6 +26,11 @@ public class ProxyApiAdapter implements ProxyApiPort {
         return proxyClient.obtenerEstadoAsiento(eventoId, fila, columna);
     }
 
+    @Override
+    public ProxyEstadoAsientosBatchResponseDTO obtenerEstadoAsientos(Long eventoId, List<ProxyAsientoDTO> asientos) {
+        return proxyClient.obtenerEstadoAsientos(eventoId, asientos);
+    }
+
     @Override
     public ProxyMapaAsientosResponseDTO obtenerMapaAsientos(Long eventoId) {
         return proxyClient.obtenerMapaAsientos(eventoId);
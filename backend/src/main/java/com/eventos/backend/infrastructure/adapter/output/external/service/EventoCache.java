@@ -0,0 +1,223 @@
+package com.eventos.backend.infrastructure.adapter.output.external.service;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache de dos niveles para el catálogo de eventos
+ *
+ * - L1: en memoria de la instancia, acotada en cantidad de entradas y con TTL corto.
+ *   Guarda los objetos ya deserializados, por lo que un acierto no paga red ni Jackson
+ * - L2: Redis, compartida por todas las instancias
+ *
+ * Las invalidaciones borran la L2 y se publican por Redis pub/sub para que cada instancia
+ * descarte su L1. Si se perdiera un mensaje, el TTL de la L1 acota cuánto se sirve un valor viejo.
+ *
+ * Las familias de claves (listados, búsquedas) llevan en la clave el número de generación de su
+ * espacio de nombres. Invalidar toda la familia es un INCR de la generación: las claves viejas
+ * dejan de consultarse y expiran solas, sin recorrer Redis. Dentro de una transacción, la
+ * invalidación se aplica después del commit para no volver a cachear datos previos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventoCache {
+
+    public static final String CANAL_INVALIDACION = "eventos:cache:invalidacion";
+
+    private static final String GENERACION_PREFIX = "eventos:cache:generacion:";
+    private static final String TIPO_CLAVE = "K|";
+    private static final String TIPO_GENERACION = "G|";
+
+    private final RedisService redisService;
+
+    @Value("${eventos.cache.l1.max-entradas:1000}")
+    private int maxEntradas;
+
+    @Value("${eventos.cache.l1.ttl-ms:30000}")
+    private long ttlLocalMs;
+
+    private final Map<String, Entrada> local = new ConcurrentHashMap<>();
+    private final Map<String, Entrada> generaciones = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene un valor desde la L1 o, si no está, desde Redis
+     *
+     * @param key Clave de cache
+     * @param desdeRedis Conversión del valor leído de Redis al tipo esperado (null si no se puede convertir)
+     * @return Valor cacheado o null si no está en ningún nivel
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String key, Function<Object, T> desdeRedis) {
+        Entrada entrada = local.get(key);
+        if (entrada != null) {
+            if (entrada.expira > System.currentTimeMillis()) {
+                return (T) entrada.valor;
+            }
+            local.remove(key, entrada);
+        }
+
+        Object cached = redisService.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        T valor = desdeRedis.apply(cached);
+        if (valor != null) {
+            guardarLocal(key, valor);
+        }
+        return valor;
+    }
+
+    /**
+     * Guarda un valor en ambos niveles
+     *
+     * @param key Clave de cache
+     * @param valor Valor para la L1
+     * @param valorRedis Representación serializable para Redis
+     * @param ttlMinutos TTL en Redis
+     */
+    public void guardar(String key, Object valor, Object valorRedis, long ttlMinutos) {
+        guardarLocal(key, valor);
+        try {
+            redisService.save(key, valorRedis, ttlMinutos, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Error al guardar {} en cache: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Arma la clave de una familia con la generación vigente de su espacio de nombres
+     *
+     * @param espacio Prefijo de la familia (por ejemplo "eventos:list:")
+     * @param resto Parte propia de la clave
+     * @return Clave "espacio" + "g{generación}:" + resto
+     */
+    public String claveConGeneracion(String espacio, String resto) {
+        return espacio + "g" + generacion(espacio) + ":" + resto;
+    }
+
+    /**
+     * Invalida una clave en Redis y en la L1 de todas las instancias
+     */
+    public void invalidar(String key) {
+        despuesDelCommit(() -> {
+            redisService.delete(key);
+            local.remove(key);
+            redisService.publish(CANAL_INVALIDACION, TIPO_CLAVE + key);
+        });
+    }
+
+    /**
+     * Invalida toda una familia de claves pasando a una nueva generación
+     * Las entradas viejas en Redis no se borran: expiran por TTL
+     */
+    public void nuevaGeneracion(String espacio) {
+        despuesDelCommit(() -> {
+            Long generacion = redisService.increment(GENERACION_PREFIX + espacio);
+            descartarGeneracionLocal(espacio);
+            redisService.publish(CANAL_INVALIDACION, TIPO_GENERACION + espacio);
+            log.debug("Cache {} en generación {}", espacio, generacion);
+        });
+    }
+
+    /**
+     * Aplica una invalidación recibida por pub/sub (propia o de otra instancia)
+     */
+    public void aplicarInvalidacion(String mensaje) {
+        if (mensaje.startsWith(TIPO_CLAVE)) {
+            local.remove(mensaje.substring(TIPO_CLAVE.length()));
+        } else if (mensaje.startsWith(TIPO_GENERACION)) {
+            descartarGeneracionLocal(mensaje.substring(TIPO_GENERACION.length()));
+        } else {
+            log.debug("Mensaje de invalidación de cache desconocido: {}", mensaje);
+        }
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private void guardarLocal(String key, Object valor) {
+        if (maxEntradas <= 0) {
+            return;
+        }
+        if (local.size() >= maxEntradas && !local.containsKey(key)) {
+            liberarEspacio();
+        }
+        local.put(key, new Entrada(valor, System.currentTimeMillis() + ttlLocalMs));
+    }
+
+    /**
+     * Quita las entradas vencidas y, si no alcanza, una de cada diez entradas vigentes
+     */
+    private void liberarEspacio() {
+        long ahora = System.currentTimeMillis();
+        local.values().removeIf(entrada -> entrada.expira <= ahora);
+
+        if (local.size() >= maxEntradas) {
+            int aQuitar = Math.max(1, maxEntradas / 10);
+            Iterator<String> claves = local.keySet().iterator();
+            while (aQuitar-- > 0 && claves.hasNext()) {
+                claves.next();
+                claves.remove();
+            }
+        }
+    }
+
+    /**
+     * Generación vigente de un espacio de nombres, desde memoria o desde Redis (0 si no hay)
+     */
+    private long generacion(String espacio) {
+        Entrada entrada = generaciones.get(espacio);
+        long ahora = System.currentTimeMillis();
+        if (entrada != null && entrada.expira > ahora) {
+            return (Long) entrada.valor;
+        }
+
+        long generacion = 0;
+        Object valor = redisService.get(GENERACION_PREFIX + espacio);
+        if (valor != null) {
+            try {
+                generacion = Long.parseLong(String.valueOf(valor));
+            } catch (NumberFormatException e) {
+                log.warn("Generación de cache inválida para {}: {}", espacio, valor);
+            }
+        }
+        generaciones.put(espacio, new Entrada(generacion, ahora + ttlLocalMs));
+        return generacion;
+    }
+
+    private void descartarGeneracionLocal(String espacio) {
+        generaciones.remove(espacio);
+        local.keySet().removeIf(key -> key.startsWith(espacio));
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entrada {
+        private final Object valor;
+        private final long expira;
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventos.backend.infrastructure.adapter.output.external.service;
 
+import com.eventos.backend.application.service.MapaAsientosVersionService;
 import com.eventos.backend.application.service.SesionCompraServiceImpl;
 import com.eventos.backend.dto.notificacion.NotificacionAsientoDTO;
 import com.eventos.backend.dto.notificacion.NotificacionEventoDTO;
@@ -21,6 +22,8 @@ public class NotificacionService {
 
     private final EventoSyncService eventoSyncService;
     private final SesionCompraServiceImpl sesionCompraService;
+    private final MapaAsientosVersionService versionService;
+    private final ProxyMapaAsientosCache proxyMapaAsientosCache;
 
     /**
      * Procesa una notificación de cambio en un evento
@@ -76,7 +79,13 @@ public class NotificacionService {
                 default:
                     log.warn("Tipo de notificación de asiento desconocido: {}", 
                             notificacion.getTipo());
+                    return;
             }
+            
+            // Registrar la transición e invalidar los mapas de asientos que tengan los clientes
+            versionService.registrarCambioPorIdExterno(notificacion.getEventoId(),
+                    notificacion.getFila(), notificacion.getColumna(), estadoNotificado(notificacion));
+            proxyMapaAsientosCache.invalidar(notificacion.getEventoId());
         } catch (Exception e) {
             log.error("Error al procesar notificación de asiento {}:{} evento {}: {}", 
                     notificacion.getFila(), notificacion.getColumna(), 
@@ -84,6 +93,23 @@ public class NotificacionService {
         }
     }
 
+    /**
+     * Estado del asiento informado en la notificación, o el que corresponde a su tipo
+     */
+    private String estadoNotificado(NotificacionAsientoDTO notificacion) {
+        if (notificacion.getNuevoEstado() != null && !notificacion.getNuevoEstado().isBlank()) {
+            return notificacion.getNuevoEstado();
+        }
+        switch (notificacion.getTipo()) {
+            case "ASIENTO_BLOQUEADO":
+                return "BLOQUEADO";
+            case "ASIENTO_VENDIDO":
+                return "VENDIDO";
+            default:
+                return "LIBRE";
+        }
+    }
+
     /**
      * Procesa la notificación de un nuevo evento
      */
@@ -141,7 +167,7 @@ public class NotificacionService {
         // El estado del asiento se consultará desde Redis vía proxy cuando sea necesario
         // No es necesario guardar en base de datos local
         
-        // TODO: Opcionalmente, notificar a clientes móviles vía WebSockets
+        // Los clientes suscritos reciben el cambio vía SSE (ver MapaAsientosPushService)
     }
 
     /**
@@ -154,8 +180,9 @@ public class NotificacionService {
         
         // El estado del asiento se consultará desde Redis vía proxy cuando sea necesario
         
+        // Los clientes suscritos reciben el cambio vía SSE (ver MapaAsientosPushService)
+        
         // TODO: Verificar si hay sesiones de compra locales afectadas
-        // TODO: Notificar a clientes móviles vía WebSockets
     }
 
     /**
@@ -168,7 +195,7 @@ public class NotificacionService {
         
         // El estado del asiento se consultará desde Redis vía proxy cuando sea necesario
         
-        // TODO: Notificar a clientes móviles vía WebSockets
+        // Los clientes suscritos reciben el cambio vía SSE (ver MapaAsientosPushService)
     }
 }
 
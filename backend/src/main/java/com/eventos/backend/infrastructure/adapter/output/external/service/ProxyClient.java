@@ -1,13 +1,19 @@
 package com.eventos.backend.infrastructure.adapter.output.external.service;
 
+import com.eventos.backend.dto.proxy.ProxyAsientoDTO;
 import com.eventos.backend.dto.proxy.ProxyEstadoAsientoResponseDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchRequestDTO;
+import com.eventos.backend.dto.proxy.ProxyEstadoAsientosBatchResponseDTO;
 import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -15,6 +21,7 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -81,6 +88,58 @@ public class ProxyClient {
         }
     }
 
+    /**
+     * Obtiene el estado de varios asientos de un evento en una sola petición al proxy
+     * 
+     * @param eventoId ID del evento
+     * @param asientos Posiciones de los asientos a consultar
+     * @return Estados de los asientos en el orden solicitado o null si no disponible
+     */
+    public ProxyEstadoAsientosBatchResponseDTO obtenerEstadoAsientos(Long eventoId, List<ProxyAsientoDTO> asientos) {
+        String url = String.format("%s%s/asientos/estado/batch", proxyUrl, proxyBasePath);
+        
+        try {
+            log.debug("Consultando estado de {} asientos evento {} en proxy", asientos.size(), eventoId);
+            
+            ProxyEstadoAsientosBatchRequestDTO request = ProxyEstadoAsientosBatchRequestDTO.builder()
+                    .eventoId(eventoId)
+                    .asientos(asientos)
+                    .build();
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            
+            ResponseEntity<ProxyEstadoAsientosBatchResponseDTO> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(request, headers),
+                    ProxyEstadoAsientosBatchResponseDTO.class
+            );
+            
+            ProxyEstadoAsientosBatchResponseDTO resultado = response.getBody();
+            if (resultado != null && resultado.getAsientos() != null) {
+                log.debug("Estado de {} asientos evento {} obtenido", 
+                        resultado.getAsientos().size(), eventoId);
+            }
+            
+            return resultado;
+            
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Evento {} no encontrado en proxy", eventoId);
+            return null;
+        } catch (HttpClientErrorException | HttpServerErrorException e) {
+            log.error("Error HTTP al consultar asientos en proxy: {} - {}", 
+                    e.getStatusCode(), e.getMessage());
+            return null;
+        } catch (ResourceAccessException e) {
+            log.error("Proxy no disponible: {}", e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("Error inesperado al consultar asientos en proxy", e);
+            return null;
+        }
+    }
+
     /**
      * Obtiene el mapa completo de asientos de un evento desde Redis de cátedra vía proxy
      * 
@@ -0,0 +1,128 @@
+package com.eventos.backend.infrastructure.adapter.output.external.service;
+
+import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache en memoria de los mapas de asientos obtenidos del proxy, por ID de evento en cátedra
+ *
+ * - Las consultas concurrentes de un mismo evento que no están en cache se resuelven
+ *   con una única llamada al proxy (single-flight)
+ * - Cada entrada guarda la versión del mapa con la que se obtuvo: si la versión del evento cambió
+ *   (notificación ASIENTO_*, bloqueo o venta en cualquier instancia) la entrada deja de servirse
+ * - La instancia que recibe la notificación del proxy además la descarta en el momento
+ * - Un TTL corto evita servir un mapa viejo si se perdiera alguna notificación
+ * - Si el proxy no responde, el evento no se vuelve a consultar hasta que pase un intervalo
+ *   de reintento: mientras tanto se devuelve null de inmediato y el llamador usa su respaldo
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProxyMapaAsientosCache {
+
+    private final ProxyClient proxyClient;
+
+    @Value("${proxy.mapa-cache.ttl-ms:2000}")
+    private long ttlMs;
+
+    @Value("${proxy.mapa-cache.reintento-ms:5000}")
+    private long reintentoMs;
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, Vuelo> enVuelo = new ConcurrentHashMap<>();
+    private final Map<Long, Long> sinRespuestaHasta = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el mapa de asientos de un evento, desde cache o desde el proxy
+     *
+     * @param eventoIdExterno ID del evento en cátedra
+     * @param version Versión actual del mapa del evento (null si no se conoce: no se usa la cache)
+     * @return Mapa de asientos o null si el proxy no está disponible
+     */
+    public ProxyMapaAsientosResponseDTO obtenerMapaAsientos(Long eventoIdExterno, Long version) {
+        Long reintento = sinRespuestaHasta.get(eventoIdExterno);
+        if (reintento != null && reintento > System.currentTimeMillis()) {
+            log.debug("Proxy sin respuesta para evento externo {}, no se consulta hasta el próximo reintento",
+                    eventoIdExterno);
+            return null;
+        }
+
+        if (version == null) {
+            return registrarRespuesta(eventoIdExterno, proxyClient.obtenerMapaAsientos(eventoIdExterno));
+        }
+
+        Entrada entrada = entradas.get(eventoIdExterno);
+        if (entrada != null && entrada.version == version && entrada.expira > System.currentTimeMillis()) {
+            log.debug("Mapa de asientos evento externo {} servido desde cache (versión {})", eventoIdExterno, version);
+            return entrada.mapa;
+        }
+
+        // Single-flight: solo el primero llama al proxy, el resto espera su resultado
+        CompletableFuture<ProxyMapaAsientosResponseDTO> nuevo = new CompletableFuture<>();
+        Vuelo propio = new Vuelo(version, nuevo);
+        Vuelo vuelo = enVuelo.compute(eventoIdExterno,
+                (id, actual) -> actual != null && actual.version == version ? actual : propio);
+
+        if (vuelo != propio) {
+            log.debug("Esperando consulta en curso del mapa de asientos evento externo {}", eventoIdExterno);
+            return vuelo.resultado.join();
+        }
+
+        try {
+            ProxyMapaAsientosResponseDTO mapa =
+                    registrarRespuesta(eventoIdExterno, proxyClient.obtenerMapaAsientos(eventoIdExterno));
+            if (mapa != null) {
+                entradas.merge(eventoIdExterno, new Entrada(version, mapa, System.currentTimeMillis() + ttlMs),
+                        (vieja, nueva) -> vieja.version > nueva.version ? vieja : nueva);
+            }
+            nuevo.complete(mapa);
+            return mapa;
+        } catch (RuntimeException e) {
+            nuevo.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(eventoIdExterno, propio);
+        }
+    }
+
+    /**
+     * Descarta el mapa cacheado de un evento
+     *
+     * @param eventoIdExterno ID del evento en cátedra
+     */
+    public void invalidar(Long eventoIdExterno) {
+        if (eventoIdExterno != null && entradas.remove(eventoIdExterno) != null) {
+            log.debug("Mapa de asientos evento externo {} descartado de cache", eventoIdExterno);
+        }
+    }
+
+    private ProxyMapaAsientosResponseDTO registrarRespuesta(Long eventoIdExterno, ProxyMapaAsientosResponseDTO mapa) {
+        if (mapa != null) {
+            sinRespuestaHasta.remove(eventoIdExterno);
+        } else if (reintentoMs > 0) {
+            sinRespuestaHasta.put(eventoIdExterno, System.currentTimeMillis() + reintentoMs);
+        }
+        return mapa;
+    }
+
+    @AllArgsConstructor
+    private static class Entrada {
+        private final long version;
+        private final ProxyMapaAsientosResponseDTO mapa;
+        private final long expira;
+    }
+
+    @AllArgsConstructor
+    private static class Vuelo {
+        private final long version;
+        private final CompletableFuture<ProxyMapaAsientosResponseDTO> resultado;
+    }
+}
@@ -3,10 +3,17 @@ package com.eventos.backend.infrastructure.adapter.output.external.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -141,6 +148,63 @@ public class RedisService {
         }
     }
 
+    /**
+     * Guardar un valor sin TTL solo si la key no existe
+     */
+    public boolean saveIfAbsent(String key, Object value) {
+        try {
+            Boolean guardado = redisTemplate.opsForValue().setIfAbsent(key, value);
+            log.debug("Saved key if absent: {} -> {}", key, guardado);
+            return Boolean.TRUE.equals(guardado);
+        } catch (Exception e) {
+            log.error("Error saving key if absent: {}", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * Guardar un valor con TTL solo si la key no existe
+     */
+    public boolean saveIfAbsent(String key, Object value, long timeout, TimeUnit unit) {
+        try {
+            Boolean guardado = redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit);
+            log.debug("Saved key if absent: {} -> {} (TTL: {} {})", key, guardado, timeout, unit);
+            return Boolean.TRUE.equals(guardado);
+        } catch (Exception e) {
+            log.error("Error saving key if absent: {}", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * Ejecutar un script Lua de forma atómica
+     * Argumentos y resultado se serializan como texto plano (no JSON)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executeScript(RedisScript<T> script, List<String> keys, Object... args) {
+        try {
+            StringRedisSerializer serializer = new StringRedisSerializer();
+            return redisTemplate.execute(script, serializer, (RedisSerializer<T>) (RedisSerializer<?>) serializer,
+                    keys, Arrays.stream(args).map(String::valueOf).toArray());
+        } catch (Exception e) {
+            log.error("Error executing script on keys: {}", keys, e);
+            return null;
+        }
+    }
+
+    /**
+     * Publicar un mensaje en un canal (texto plano, no JSON)
+     */
+    public void publish(String channel, String message) {
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(
+                    channel.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8)));
+            log.debug("Published to channel: {}", channel);
+        } catch (Exception e) {
+            log.error("Error publishing to channel: {}", channel, e);
+        }
+    }
+
     /**
      * Incrementar un contador
      */
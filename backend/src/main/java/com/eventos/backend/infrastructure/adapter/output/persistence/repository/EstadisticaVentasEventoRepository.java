@@ -0,0 +1,66 @@
+package com.eventos.backend.infrastructure.adapter.output.persistence.repository;
+
+import com.eventos.backend.domain.model.EstadisticaVentasEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface EstadisticaVentasEventoRepository extends JpaRepository<EstadisticaVentasEvento, Long> {
+
+    /**
+     * Sumar deltas a los contadores de un evento, creando la fila si no existe
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO estadisticas_ventas_evento AS e " +
+                   "(evento_id, asientos_vendidos, recaudacion, ventas_confirmadas, ventas_pendientes, updated_at) " +
+                   "VALUES (:eventoId, :asientos, :recaudacion, :confirmadas, :pendientes, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (evento_id) DO UPDATE SET " +
+                   "asientos_vendidos = e.asientos_vendidos + EXCLUDED.asientos_vendidos, " +
+                   "recaudacion = e.recaudacion + EXCLUDED.recaudacion, " +
+                   "ventas_confirmadas = e.ventas_confirmadas + EXCLUDED.ventas_confirmadas, " +
+                   "ventas_pendientes = e.ventas_pendientes + EXCLUDED.ventas_pendientes, " +
+                   "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int acumular(
+            @Param("eventoId") Long eventoId,
+            @Param("asientos") long asientos,
+            @Param("recaudacion") BigDecimal recaudacion,
+            @Param("confirmadas") long confirmadas,
+            @Param("pendientes") long pendientes
+    );
+
+    /**
+     * Borrar todos los contadores (para reconstruirlos)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM estadisticas_ventas_evento", nativeQuery = true)
+    int borrarTodas();
+
+    /**
+     * Recalcular los contadores de todos los eventos desde las tablas de ventas
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO estadisticas_ventas_evento " +
+                   "(evento_id, asientos_vendidos, recaudacion, ventas_confirmadas, ventas_pendientes, updated_at) " +
+                   "SELECT v.evento_id, " +
+                   "COALESCE(SUM(CASE WHEN v.resultado THEN a.cantidad ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN v.resultado THEN v.precio_total ELSE 0 END), 0), " +
+                   "COUNT(*) FILTER (WHERE v.confirmada_catedra), " +
+                   "COUNT(o.id), " +
+                   "CURRENT_TIMESTAMP " +
+                   "FROM ventas v " +
+                   "LEFT JOIN (SELECT venta_id, COUNT(*) AS cantidad FROM asientos_venta GROUP BY venta_id) a " +
+                   "ON a.venta_id = v.id " +
+                   "LEFT JOIN outbox_confirmacion_venta o ON o.venta_id = v.id " +
+                   "WHERE v.evento_id IS NOT NULL " +
+                   "GROUP BY v.evento_id", nativeQuery = true)
+    int reconstruirTodas();
+}
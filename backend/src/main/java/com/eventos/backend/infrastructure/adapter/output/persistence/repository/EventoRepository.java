@@ -2,7 +2,12 @@ package com.eventos.backend.infrastructure.adapter.output.persistence.repository
 
 import com.eventos.backend.domain.model.Evento;
 import com.eventos.backend.domain.model.TipoEvento;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,7 +17,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventoRepository extends JpaRepository<Evento, Long> {
+public interface EventoRepository extends JpaRepository<Evento, Long>, JpaSpecificationExecutor<Evento> {
 
     /**
      * Buscar evento por ID externo (ID del servicio de cátedra)
@@ -25,6 +30,83 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
     @Query("SELECT e FROM Evento e WHERE e.activo = true ORDER BY e.fecha ASC")
     List<Evento> findAllActive();
 
+    /**
+     * Página de eventos activos, ordenada y paginada en la base
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true")
+    Page<Evento> findActivos(Pageable pageable);
+
+    /**
+     * Eventos activos posteriores a un cursor (fecha, id), en orden fecha ASC, id ASC
+     * El tamaño se indica con el Pageable (sin offset)
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true " +
+           "AND (e.fecha > :fecha OR (e.fecha = :fecha AND e.id > :id)) " +
+           "ORDER BY e.fecha ASC, e.id ASC")
+    List<Evento> findActivosDesdeCursor(
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    /**
+     * Página de eventos activos posteriores a una fecha
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true AND e.fecha > :fecha")
+    Page<Evento> findActivosFuturos(@Param("fecha") LocalDateTime fecha, Pageable pageable);
+
+    /**
+     * Página de eventos activos anteriores a una fecha
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true AND e.fecha < :fecha")
+    Page<Evento> findActivosPasados(@Param("fecha") LocalDateTime fecha, Pageable pageable);
+
+    /**
+     * Página de eventos activos en un rango de fechas
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true AND e.fecha BETWEEN :inicio AND :fin")
+    Page<Evento> findActivosEntreFechas(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fin") LocalDateTime fin,
+            Pageable pageable
+    );
+
+    /**
+     * Página de eventos activos de un tipo
+     */
+    @EntityGraph(attributePaths = "tipoEvento")
+    @Query("SELECT e FROM Evento e WHERE e.activo = true AND e.tipoEvento.id = :tipoEventoId")
+    Page<Evento> findActivosByTipo(@Param("tipoEventoId") Long tipoEventoId, Pageable pageable);
+
+    /**
+     * Página de eventos según filtros dinámicos (ver EventoSpecifications), con su tipo de evento
+     */
+    @Override
+    @EntityGraph(attributePaths = "tipoEvento")
+    Page<Evento> findAll(Specification<Evento> spec, Pageable pageable);
+
+    /**
+     * Búsqueda de eventos activos por texto, ordenada por relevancia (solo PostgreSQL)
+     * Coincide por texto completo sobre título, resumen y descripción (columna busqueda, índice GIN)
+     * o por similitud de trigramas con el título (índice pg_trgm). El ranking pondera primero
+     * el texto completo y luego la similitud del título; fecha e id desempatan
+     */
+    @Query(value = "SELECT e.* FROM eventos e " +
+                   "WHERE e.activo = true " +
+                   "AND (e.busqueda @@ websearch_to_tsquery('spanish', :texto) OR lower(e.titulo) % lower(:texto)) " +
+                   "ORDER BY ts_rank(e.busqueda, websearch_to_tsquery('spanish', :texto)) DESC, " +
+                   "similarity(lower(e.titulo), lower(:texto)) DESC, e.fecha ASC, e.id ASC",
+           countQuery = "SELECT count(*) FROM eventos e " +
+                        "WHERE e.activo = true " +
+                        "AND (e.busqueda @@ websearch_to_tsquery('spanish', :texto) OR lower(e.titulo) % lower(:texto))",
+           nativeQuery = true)
+    Page<Evento> buscarPorTexto(@Param("texto") String texto, Pageable pageable);
+
     /**
      * Buscar eventos activos con sus integrantes (evita N+1)
      */
@@ -57,12 +139,6 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
             @Param("fin") LocalDateTime fin
     );
 
-    /**
-     * Buscar eventos por título (búsqueda parcial, case-insensitive)
-     */
-    @Query("SELECT e FROM Evento e WHERE e.activo = true AND LOWER(e.titulo) LIKE LOWER(CONCAT('%', :titulo, '%')) ORDER BY e.fecha ASC")
-    List<Evento> findByTituloContaining(@Param("titulo") String titulo);
-
     /**
      * Buscar eventos por tipo y rango de fechas
      */
@@ -0,0 +1,76 @@
+package com.eventos.backend.infrastructure.adapter.output.persistence.repository;
+
+import com.eventos.backend.domain.model.Evento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de eventos para consultas dinámicas (JpaSpecificationExecutor)
+ *
+ * Cada filtro se agrega a la consulta solo si su valor fue informado, por lo que la base
+ * recibe un único WHERE con los filtros pedidos y resuelve orden y paginación.
+ * Índices que la respaldan: (activo, fecha, id), (tipo_evento_id, fecha, id) parcial sobre
+ * activos, y trigramas sobre lower(titulo) para el LIKE por título.
+ */
+public final class EventoSpecifications {
+
+    private EventoSpecifications() {
+    }
+
+    /**
+     * Búsqueda avanzada: eventos activos que cumplen todos los filtros informados
+     * (los parámetros null o vacíos no filtran)
+     */
+    public static Specification<Evento> busquedaAvanzada(
+            String titulo,
+            Long tipoEventoId,
+            LocalDateTime fechaDesde,
+            LocalDateTime fechaHasta) {
+
+        Specification<Evento> spec = activos();
+        if (titulo != null && !titulo.trim().isEmpty()) {
+            spec = spec.and(tituloContiene(titulo.trim()));
+        }
+        if (tipoEventoId != null) {
+            spec = spec.and(deTipo(tipoEventoId));
+        }
+        if (fechaDesde != null) {
+            spec = spec.and(desde(fechaDesde));
+        }
+        if (fechaHasta != null) {
+            spec = spec.and(hasta(fechaHasta));
+        }
+        return spec;
+    }
+
+    public static Specification<Evento> activos() {
+        return (root, query, cb) -> cb.isTrue(root.get("activo"));
+    }
+
+    /**
+     * Título que contiene el texto, sin distinguir mayúsculas (los comodines del texto se escapan)
+     */
+    public static Specification<Evento> tituloContiene(String texto) {
+        String patron = "%" + texto.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("titulo")), patron, '\\');
+    }
+
+    /**
+     * Tipo de evento por ID (compara la clave foránea, sin join a tipos_evento)
+     */
+    public static Specification<Evento> deTipo(Long tipoEventoId) {
+        return (root, query, cb) -> cb.equal(root.get("tipoEvento").get("id"), tipoEventoId);
+    }
+
+    public static Specification<Evento> desde(LocalDateTime fecha) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fecha"), fecha);
+    }
+
+    public static Specification<Evento> hasta(LocalDateTime fecha) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("fecha"), fecha);
+    }
+}
@@ -0,0 +1,41 @@
+package com.eventos.backend.infrastructure.adapter.output.persistence.repository;
+
+import com.eventos.backend.domain.model.OutboxConfirmacionVenta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxConfirmacionVentaRepository extends JpaRepository<OutboxConfirmacionVenta, Long> {
+
+    /**
+     * Reclamar un lote de confirmaciones vencidas, saltando las que otra instancia
+     * ya tiene bloqueadas (debe ejecutarse dentro de una transacción)
+     */
+    @Query(value = "SELECT * FROM outbox_confirmacion_venta WHERE proximo_intento <= :ahora " +
+                   "ORDER BY proximo_intento LIMIT :lote FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxConfirmacionVenta> reclamarVencidas(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    /**
+     * Buscar la confirmación pendiente de una venta
+     */
+    Optional<OutboxConfirmacionVenta> findByVentaId(Long ventaId);
+
+    /**
+     * Verificar si una venta sigue pendiente de confirmación
+     */
+    boolean existsByVentaId(Long ventaId);
+
+    /**
+     * Quitar la confirmación pendiente de una venta
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxConfirmacionVenta o WHERE o.ventaId = :ventaId")
+    int deleteByVentaId(@Param("ventaId") Long ventaId);
+}
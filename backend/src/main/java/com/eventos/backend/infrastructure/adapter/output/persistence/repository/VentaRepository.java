@@ -3,12 +3,17 @@ package com.eventos.backend.infrastructure.adapter.output.persistence.repository
 import com.eventos.backend.domain.model.Evento;
 import com.eventos.backend.domain.model.Usuario;
 import com.eventos.backend.domain.model.Venta;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,12 +64,6 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     @Query("SELECT v FROM Venta v WHERE v.resultado = true AND v.confirmadaCatedra = false ORDER BY v.fechaVenta ASC")
     List<Venta> findPendingConfirmation();
 
-    /**
-     * Buscar ventas no confirmadas con reintentos limitados
-     */
-    @Query("SELECT v FROM Venta v WHERE v.resultado = true AND v.confirmadaCatedra = false AND v.intentosSincronizacion < :maxIntentos ORDER BY v.fechaVenta ASC")
-    List<Venta> findVentasForRetry(@Param("maxIntentos") Integer maxIntentos);
-
     /**
      * Buscar ventas confirmadas con cátedra
      */
@@ -113,11 +112,105 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     @Query("SELECT DISTINCT v FROM Venta v LEFT JOIN FETCH v.asientos WHERE v.usuario.id = :usuarioId ORDER BY v.fechaVenta DESC")
     List<Venta> findByUsuarioIdWithAsientos(@Param("usuarioId") Long usuarioId);
 
+    /**
+     * Bloquear (FOR UPDATE) las ventas locales que cátedra informa con los IDs externos dados
+     * y que todavía no estaban confirmadas
+     *
+     * @return IDs locales de las ventas bloqueadas
+     */
+    @Query(value = "SELECT v.id FROM ventas v WHERE v.id_externo IN (:idsExternos) " +
+                   "AND (v.confirmada_catedra = false OR v.confirmada_catedra IS NULL) FOR UPDATE",
+           nativeQuery = true)
+    List<Long> bloquearNoConfirmadasPorIdsExternos(@Param("idsExternos") Collection<Long> idsExternos);
+
+    /**
+     * Ventas, asientos y recaudación por evento de las ventas dadas
+     * (deltas de estadísticas al confirmarlas)
+     */
+    @Query(value = "SELECT v.evento_id AS eventoId, COUNT(*) AS ventas, " +
+                   "COALESCE(SUM(a.cantidad), 0) AS asientos, COALESCE(SUM(v.precio_total), 0) AS recaudacion " +
+                   "FROM ventas v " +
+                   "LEFT JOIN (SELECT venta_id, COUNT(*) AS cantidad FROM asientos_venta " +
+                   "WHERE venta_id IN (:ids) GROUP BY venta_id) a ON a.venta_id = v.id " +
+                   "WHERE v.id IN (:ids) AND v.evento_id IS NOT NULL " +
+                   "GROUP BY v.evento_id", nativeQuery = true)
+    List<ConfirmacionesEvento> resumirPorEvento(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marcar como confirmadas, en una sola sentencia, las ventas con los IDs locales dados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Venta v SET v.confirmadaCatedra = true, v.resultado = true, v.descripcion = :descripcion " +
+           "WHERE v.id IN :ids AND (v.confirmadaCatedra = false OR v.confirmadaCatedra IS NULL)")
+    int confirmarPorIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("descripcion") String descripcion
+    );
+
+    /**
+     * Totales por evento de un lote de ventas confirmadas
+     */
+    interface ConfirmacionesEvento {
+        Long getEventoId();
+        Long getVentas();
+        Long getAsientos();
+        BigDecimal getRecaudacion();
+    }
+
+    /**
+     * Buscar una venta con su evento, usuario y asientos para confirmarla con cátedra
+     */
+    @Query("SELECT DISTINCT v FROM Venta v JOIN FETCH v.evento JOIN FETCH v.usuario LEFT JOIN FETCH v.asientos WHERE v.id = :ventaId")
+    Optional<Venta> findByIdParaConfirmacion(@Param("ventaId") Long ventaId);
+
+    /**
+     * Página de IDs de ventas de un usuario por cursor (fecha_venta, id), de la más nueva a la más vieja
+     * Solo lee el índice de ventas: los asientos se traen aparte con {@link #findByIdInWithAsientos}.
+     * Con incluirPendientes = false se omiten las ventas que siguen en el outbox de confirmación
+     */
+    @Query("SELECT v.id FROM Venta v WHERE v.usuario.id = :usuarioId AND v.resultado IN :resultados " +
+           "AND (:incluirPendientes = true OR NOT EXISTS " +
+           "(SELECT o.id FROM OutboxConfirmacionVenta o WHERE o.ventaId = v.id)) " +
+           "AND (v.fechaVenta < :fecha OR (v.fechaVenta = :fecha AND v.id < :id)) " +
+           "ORDER BY v.fechaVenta DESC, v.id DESC")
+    List<Long> findIdsPaginaByUsuario(
+            @Param("usuarioId") Long usuarioId,
+            @Param("resultados") Collection<Boolean> resultados,
+            @Param("incluirPendientes") boolean incluirPendientes,
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    /**
+     * Buscar ventas por ID con su evento y asientos en una sola consulta
+     */
+    @Query("SELECT DISTINCT v FROM Venta v JOIN FETCH v.evento LEFT JOIN FETCH v.asientos WHERE v.id IN :ids")
+    List<Venta> findByIdInWithAsientos(@Param("ids") Collection<Long> ids);
+
     /**
      * Verificar si existe venta por ID externo
      */
     Boolean existsByIdExterno(Long idExterno);
 
+    /**
+     * Registrar el resultado de la confirmación con cátedra en una sola sentencia
+     * (sin cargar la venta ni sus asientos)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Venta v SET v.resultado = :confirmada, v.confirmadaCatedra = :confirmada, " +
+           "v.idExterno = :idExterno, v.descripcion = :descripcion, " +
+           "v.intentosSincronizacion = v.intentosSincronizacion + :intentos WHERE v.id = :ventaId")
+    int actualizarResultadoConfirmacion(
+            @Param("ventaId") Long ventaId,
+            @Param("confirmada") Boolean confirmada,
+            @Param("idExterno") Long idExterno,
+            @Param("descripcion") String descripcion,
+            @Param("intentos") Integer intentos
+    );
+
     /**
      * Calcular ingresos totales por evento
      */
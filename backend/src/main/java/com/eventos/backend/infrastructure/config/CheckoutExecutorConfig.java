@@ -0,0 +1,37 @@
+package com.eventos.backend.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool acotado para confirmar ventas con cátedra fuera del hilo del request
+ *
+ * Las llamadas a cátedra pueden tardar hasta el read timeout (30 s): con un pool propio
+ * y una cola limitada, unas pocas llamadas lentas no retienen hilos ni conexiones de la base
+ * del resto del servicio. Si la cola se llena, la tarea se rechaza y la venta queda
+ * en el outbox para el próximo barrido.
+ */
+@Configuration
+public class CheckoutExecutorConfig {
+
+    @Value("${venta.checkout.hilos:8}")
+    private int hilos;
+
+    @Value("${venta.checkout.cola:200}")
+    private int capacidadCola;
+
+    @Bean(name = "checkoutExecutor")
+    public ThreadPoolTaskExecutor checkoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("checkout-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(35);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eventos.backend.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool acotado para escribir los eventos SSE del mapa de asientos
+ *
+ * Un cliente lento puede bloquear la escritura en su conexión: con un pool propio,
+ * ni el listener de Redis ni el heartbeat quedan esperando. Cada suscriptor tiene a lo sumo
+ * una tarea en la cola, por lo que su capacidad acompaña al máximo de suscriptores.
+ */
+@Configuration
+public class PushExecutorConfig {
+
+    @Value("${asientos.push.hilos:4}")
+    private int hilos;
+
+    @Value("${asientos.push.max-suscriptores:10000}")
+    private int capacidadCola;
+
+    @Bean(name = "pushExecutor")
+    public ThreadPoolTaskExecutor pushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("push-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,9 @@
 package com.eventos.backend.infrastructure.config;
 
+import com.eventos.backend.application.service.MapaAsientosVersionService;
+import com.eventos.backend.infrastructure.adapter.input.redis.CambiosAsientosRedisListener;
+import com.eventos.backend.infrastructure.adapter.input.redis.EventoCacheRedisListener;
+import com.eventos.backend.infrastructure.adapter.output.external.service.EventoCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -10,6 +14,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -59,6 +65,24 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Suscripción a los canales de cambios de asientos (push a clientes en tiempo real)
+     * y de invalidación de la cache de eventos
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CambiosAsientosRedisListener cambiosAsientosListener,
+            EventoCacheRedisListener eventoCacheListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cambiosAsientosListener,
+                new ChannelTopic(MapaAsientosVersionService.CANAL_CAMBIOS));
+        container.addMessageListener(eventoCacheListener,
+                new ChannelTopic(EventoCache.CANAL_INVALIDACION));
+        return container;
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -1,6 +1,7 @@
 package com.eventos.backend.infrastructure.config;
 
 import com.eventos.backend.infrastructure.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,6 +41,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Los dispatch asíncronos (streams SSE) ya se autorizaron en el request original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Rutas públicas
                         .requestMatchers(
                                 "/api/auth/**",
@@ -104,14 +107,16 @@ public class SecurityConfig {
                 "Authorization",
                 "Content-Type",
                 "Accept",
-                "X-Requested-With"
+                "X-Requested-With",
+                "If-None-Match",
+                "Idempotency-Key"
         ));
         
         // Permitir credenciales
         configuration.setAllowCredentials(true);
         
         // Headers expuestos
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Location", "X-Mapa-Filas", "X-Mapa-Columnas"));
         
         // Tiempo de cache para preflight requests
         configuration.setMaxAge(3600L);
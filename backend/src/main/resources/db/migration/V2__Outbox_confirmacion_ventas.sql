@@ -0,0 +1,23 @@
+-- V2__Outbox_confirmacion_ventas.sql
+-- Outbox de confirmaciones de venta pendientes con cátedra
+
+-- Una fila por venta pendiente de confirmar; se escribe en la misma transacción que la venta
+CREATE TABLE outbox_confirmacion_venta (
+    id BIGSERIAL PRIMARY KEY,
+    venta_id BIGINT UNIQUE NOT NULL REFERENCES ventas(id) ON DELETE CASCADE,
+    intentos INTEGER NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP NOT NULL,
+    ultimo_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Los workers reclaman por proximo_intento con FOR UPDATE SKIP LOCKED
+CREATE INDEX idx_outbox_proximo_intento ON outbox_confirmacion_venta(proximo_intento);
+
+-- Ventas que ya estaban pendientes con cátedra: pasan al outbox para reintentarse de inmediato
+INSERT INTO outbox_confirmacion_venta (venta_id, intentos, proximo_intento)
+SELECT id, COALESCE(intentos_sincronizacion, 0), now()
+FROM ventas
+WHERE confirmada_catedra IS NOT TRUE AND id_externo IS NULL;
+
+COMMENT ON TABLE outbox_confirmacion_venta IS 'Ventas pendientes de confirmación con cátedra';
@@ -0,0 +1,4 @@
+-- V3__Indice_ventas_usuario_fecha.sql
+-- Índice para la paginación por cursor del historial de ventas (usuario, fecha_venta, id)
+
+CREATE INDEX idx_ventas_usuario_fecha ON ventas(usuario_id, fecha_venta DESC, id DESC);
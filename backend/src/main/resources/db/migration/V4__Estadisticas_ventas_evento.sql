@@ -0,0 +1,28 @@
+-- V4__Estadisticas_ventas_evento.sql
+-- Contadores de ventas por evento, mantenidos en la misma transacción que cada venta
+
+CREATE TABLE estadisticas_ventas_evento (
+    evento_id BIGINT PRIMARY KEY REFERENCES eventos(id) ON DELETE CASCADE,
+    asientos_vendidos BIGINT NOT NULL DEFAULT 0,
+    recaudacion DECIMAL(14,2) NOT NULL DEFAULT 0,
+    ventas_confirmadas BIGINT NOT NULL DEFAULT 0,
+    ventas_pendientes BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Carga inicial a partir de las ventas existentes
+INSERT INTO estadisticas_ventas_evento
+    (evento_id, asientos_vendidos, recaudacion, ventas_confirmadas, ventas_pendientes, updated_at)
+SELECT v.evento_id,
+       COALESCE(SUM(CASE WHEN v.resultado THEN a.cantidad ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN v.resultado THEN v.precio_total ELSE 0 END), 0),
+       COUNT(*) FILTER (WHERE v.confirmada_catedra),
+       COUNT(o.id),
+       CURRENT_TIMESTAMP
+FROM ventas v
+LEFT JOIN (SELECT venta_id, COUNT(*) AS cantidad FROM asientos_venta GROUP BY venta_id) a ON a.venta_id = v.id
+LEFT JOIN outbox_confirmacion_venta o ON o.venta_id = v.id
+WHERE v.evento_id IS NOT NULL
+GROUP BY v.evento_id;
+
+COMMENT ON TABLE estadisticas_ventas_evento IS 'Contadores de ventas por evento (asientos, recaudación, confirmadas y pendientes)';
@@ -0,0 +1,16 @@
+-- V5__Secuencias_ventas.sql
+-- IDs de ventas y asientos_venta desde secuencias con incremento 50 (optimizador pooled de Hibernate),
+-- para que los INSERT de una venta y sus asientos se envíen en batch
+
+CREATE SEQUENCE ventas_seq INCREMENT BY 50;
+CREATE SEQUENCE asientos_venta_seq INCREMENT BY 50;
+
+-- El próximo bloque asignado queda por encima de los IDs existentes
+SELECT setval('ventas_seq', GREATEST(COALESCE((SELECT MAX(id) FROM ventas), 0), 1));
+SELECT setval('asientos_venta_seq', GREATEST(COALESCE((SELECT MAX(id) FROM asientos_venta), 0), 1));
+
+-- Las columnas dejan de usar las secuencias de BIGSERIAL: los IDs los asigna la aplicación
+ALTER TABLE ventas ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE asientos_venta ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS ventas_id_seq;
+DROP SEQUENCE IF EXISTS asientos_venta_id_seq;
@@ -0,0 +1,6 @@
+-- V6__Indice_eventos_activo_fecha.sql
+-- Índice para los listados del catálogo paginados en la base (activo, fecha, id):
+-- cubre el filtro por activo, el orden por fecha con desempate por id y la paginación por cursor
+
+CREATE INDEX idx_eventos_activo_fecha ON eventos(activo, fecha, id);
+CREATE INDEX idx_eventos_tipo_fecha ON eventos(tipo_evento_id, fecha, id) WHERE activo = TRUE;
@@ -0,0 +1,33 @@
+-- V7__Busqueda_texto_eventos.sql
+-- Búsqueda de eventos con índices: texto completo (tsvector) sobre título, resumen y descripción,
+-- y trigramas sobre el título para coincidencias aproximadas (errores de tipeo, palabras incompletas)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE eventos ADD COLUMN busqueda tsvector;
+
+-- El título pesa más que el resumen, y el resumen más que la descripción
+CREATE OR REPLACE FUNCTION eventos_actualizar_busqueda() RETURNS trigger AS $$
+BEGIN
+    NEW.busqueda :=
+        setweight(to_tsvector('spanish', coalesce(NEW.titulo, '')), 'A') ||
+        setweight(to_tsvector('spanish', coalesce(NEW.resumen, '')), 'B') ||
+        setweight(to_tsvector('spanish', coalesce(NEW.descripcion, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_eventos_busqueda
+    BEFORE INSERT OR UPDATE OF titulo, resumen, descripcion ON eventos
+    FOR EACH ROW EXECUTE FUNCTION eventos_actualizar_busqueda();
+
+-- Completar los eventos existentes
+UPDATE eventos SET busqueda =
+    setweight(to_tsvector('spanish', coalesce(titulo, '')), 'A') ||
+    setweight(to_tsvector('spanish', coalesce(resumen, '')), 'B') ||
+    setweight(to_tsvector('spanish', coalesce(descripcion, '')), 'C');
+
+CREATE INDEX idx_eventos_busqueda ON eventos USING GIN (busqueda);
+CREATE INDEX idx_eventos_titulo_trgm ON eventos USING GIN (lower(titulo) gin_trgm_ops);
+
+COMMENT ON COLUMN eventos.busqueda IS 'Vector de búsqueda de texto completo, mantenido por trigger';
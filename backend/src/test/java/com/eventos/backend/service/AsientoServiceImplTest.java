@@ -0,0 +1,192 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.dto.AsientoSeleccionadoDTO;
+import com.eventos.backend.dto.EstadoAsientoDTO;
+import com.eventos.backend.dto.MapaAsientosCompactoDTO;
+import com.eventos.backend.dto.MapaAsientosDTO;
+import com.eventos.backend.dto.SesionCompraDTO;
+import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.CatedraApiClient;
+import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyClient;
+import com.eventos.backend.infrastructure.adapter.output.external.service.ProxyMapaAsientosCache;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsientoServiceImplTest {
+
+    @Mock
+    private EventoRepository eventoRepository;
+
+    @Mock
+    private CatedraApiClient catedraApiClient;
+
+    @Mock
+    private SesionCompraServiceImpl sesionCompraService;
+
+    @Mock
+    private ProxyClient proxyClient;
+
+    @Mock
+    private ProxyMapaAsientosCache proxyMapaAsientosCache;
+
+    @Mock
+    private MapaAsientosVersionService versionService;
+
+    @Mock
+    private PreReservaAsientosService preReservaService;
+
+    @Mock
+    private BloqueoAsientosExpiracionService bloqueoExpiracionService;
+
+    @Mock
+    private OcupacionAsientosService ocupacionService;
+
+    @InjectMocks
+    private AsientoServiceImpl asientoService;
+
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        evento = Evento.builder()
+                .id(1L)
+                .idExterno(100L)
+                .titulo("Concierto")
+                .filaAsientos(3)
+                .columnaAsientos(4)
+                .precioEntrada(BigDecimal.TEN)
+                .activo(true)
+                .build();
+    }
+
+    @Test
+    void testObtenerMapaAsientos_UnaSolaConsultaAlProxy() {
+        // Given
+        when(eventoRepository.findById(1L)).thenReturn(Optional.of(evento));
+        when(proxyMapaAsientosCache.obtenerMapaAsientos(eq(100L), any())).thenReturn(ProxyMapaAsientosResponseDTO.builder()
+                .eventoId(100L)
+                .asientos(Map.of(
+                        "1:1", "VENDIDO",
+                        "2:3", "BLOQUEADO",
+                        "3:4", "OCUPADO",
+                        "9:9", "VENDIDO",   // fuera de rango, se ignora
+                        "basura", "VENDIDO"))
+                .build());
+
+        // When
+        MapaAsientosDTO mapa = asientoService.obtenerMapaAsientos(1L);
+
+        // Then
+        verify(proxyMapaAsientosCache, times(1)).obtenerMapaAsientos(eq(100L), any());
+        verify(proxyClient, never()).obtenerEstadoAsiento(anyLong(), anyInt(), anyInt());
+
+        assertEquals(12, mapa.getAsientos().size());
+        assertEquals(2, mapa.getAsientosOcupados());
+        assertEquals(1, mapa.getAsientosBloqueados());
+        assertEquals(9, mapa.getAsientosLibres());
+        assertEquals(EstadoAsientoDTO.OCUPADO, estadoDe(mapa, 1, 1));
+        assertEquals(EstadoAsientoDTO.BLOQUEADO, estadoDe(mapa, 2, 3));
+        assertEquals(EstadoAsientoDTO.LIBRE, estadoDe(mapa, 2, 2));
+    }
+
+    @Test
+    void testObtenerMapaAsientos_SeleccionDeSesionTienePrioridad() {
+        // Given
+        SesionCompraDTO sesion = SesionCompraDTO.builder()
+                .eventoId(1L)
+                .asientosSeleccionados(new ArrayList<>(List.of(
+                        AsientoSeleccionadoDTO.builder().fila(2).columna(3).build(),
+                        AsientoSeleccionadoDTO.builder().fila(1).columna(2).build())))
+                .build();
+        when(eventoRepository.findById(1L)).thenReturn(Optional.of(evento));
+        when(sesionCompraService.obtenerSesionActual()).thenReturn(sesion);
+        when(proxyMapaAsientosCache.obtenerMapaAsientos(eq(100L), any())).thenReturn(ProxyMapaAsientosResponseDTO.builder()
+                .asientos(Map.of("2:3", "BLOQUEADO"))
+                .build());
+
+        // When
+        MapaAsientosDTO mapa = asientoService.obtenerMapaAsientos(1L);
+
+        // Then
+        assertEquals(EstadoAsientoDTO.SELECCIONADO, estadoDe(mapa, 2, 3));
+        assertEquals(EstadoAsientoDTO.SELECCIONADO, estadoDe(mapa, 1, 2));
+        assertEquals(0, mapa.getAsientosBloqueados());
+        assertEquals(10, mapa.getAsientosLibres());
+    }
+
+    @Test
+    void testObtenerMapaAsientos_ProxyNoDisponible_UsaVentasPropias() {
+        // Given
+        BitSet vendidos = new BitSet();
+        vendidos.set(0);    // 1:1
+        vendidos.set(6);    // 2:3
+        when(eventoRepository.findById(1L)).thenReturn(Optional.of(evento));
+        when(proxyMapaAsientosCache.obtenerMapaAsientos(eq(100L), any())).thenReturn(null);
+        when(ocupacionService.obtenerOcupados(evento)).thenReturn(vendidos);
+
+        // When
+        MapaAsientosDTO mapa = asientoService.obtenerMapaAsientos(1L);
+
+        // Then
+        assertEquals(12, mapa.getAsientosTotales());
+        assertEquals(2, mapa.getAsientosOcupados());
+        assertEquals(10, mapa.getAsientosLibres());
+        assertEquals(EstadoAsientoDTO.OCUPADO, estadoDe(mapa, 1, 1));
+        assertEquals(EstadoAsientoDTO.OCUPADO, estadoDe(mapa, 2, 3));
+        assertTrue(mapa.getDegradado());
+    }
+
+    @Test
+    void testObtenerMapaAsientosCompacto_EmpaquetaDosBitsPorAsiento() {
+        // Given
+        when(eventoRepository.findById(1L)).thenReturn(Optional.of(evento));
+        when(proxyMapaAsientosCache.obtenerMapaAsientos(eq(100L), any())).thenReturn(ProxyMapaAsientosResponseDTO.builder()
+                .asientos(Map.of(
+                        "1:2", "BLOQUEADO",   // índice 1
+                        "1:4", "VENDIDO",     // índice 3
+                        "3:4", "OCUPADO"))    // índice 11
+                .build());
+
+        // When
+        MapaAsientosCompactoDTO mapa = asientoService.obtenerMapaAsientosCompacto(1L);
+
+        // Then
+        assertEquals(3, mapa.getEstados().length);
+        assertEquals((byte) 0b10_00_01_00, mapa.getEstados()[0]);
+        assertEquals(0, mapa.getEstados()[1]);
+        assertEquals((byte) 0b10_00_00_00, mapa.getEstados()[2]);
+        assertEquals(9, mapa.getAsientosLibres());
+        assertEquals(2, mapa.getAsientosOcupados());
+        assertEquals(1, mapa.getAsientosBloqueados());
+        assertFalse(mapa.getDegradado());
+    }
+
+    private String estadoDe(MapaAsientosDTO mapa, int fila, int columna) {
+        return mapa.getAsientos().stream()
+                .filter(a -> a.getFila() == fila && a.getColumna() == columna)
+                .findFirst()
+                .map(EstadoAsientoDTO::getEstado)
+                .orElseThrow();
+    }
+}
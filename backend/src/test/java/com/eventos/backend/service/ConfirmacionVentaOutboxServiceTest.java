@@ -0,0 +1,203 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.domain.model.AsientoVenta;
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.domain.model.OutboxConfirmacionVenta;
+import com.eventos.backend.domain.model.Venta;
+import com.eventos.backend.dto.catedra.CatedraRealizarVentaResponseDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.CatedraApiClient;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.OutboxConfirmacionVentaRepository;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.VentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfirmacionVentaOutboxServiceTest {
+
+    private static final long BACKOFF_BASE_MS = 1000;
+    private static final long BACKOFF_MAX_MS = 300000;
+    private static final int MAX_INTENTOS = 10;
+
+    @Mock
+    private OutboxConfirmacionVentaRepository outboxRepository;
+
+    @Mock
+    private VentaRepository ventaRepository;
+
+    @Mock
+    private CatedraApiClient catedraApiClient;
+
+    @Mock
+    private SesionCompraServiceImpl sesionCompraService;
+
+    @Mock
+    private PreReservaAsientosService preReservaService;
+
+    @Mock
+    private BloqueoAsientosExpiracionService bloqueoExpiracionService;
+
+    @Mock
+    private MapaAsientosVersionService versionService;
+
+    @Mock
+    private EstadisticasVentasService estadisticasService;
+
+    @Mock
+    private OcupacionAsientosService ocupacionService;
+
+    @Mock
+    private ThreadPoolTaskExecutor checkoutExecutor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ConfirmacionVentaOutboxService outboxService;
+
+    private Venta venta;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "backoffBaseMs", BACKOFF_BASE_MS);
+        ReflectionTestUtils.setField(outboxService, "backoffMaxMs", BACKOFF_MAX_MS);
+        ReflectionTestUtils.setField(outboxService, "maxIntentos", MAX_INTENTOS);
+
+        lenient().doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        Evento evento = Evento.builder()
+                .id(1L)
+                .idExterno(10L)
+                .titulo("Concierto")
+                .filaAsientos(10)
+                .columnaAsientos(10)
+                .build();
+        venta = Venta.builder()
+                .id(100L)
+                .evento(evento)
+                .precioTotal(new BigDecimal("20.00"))
+                .resultado(false)
+                .build();
+        venta.addAsiento(AsientoVenta.builder().fila(1).columna(1).nombrePersona("Ana").build());
+        venta.addAsiento(AsientoVenta.builder().fila(1).columna(2).nombrePersona("Juan").build());
+    }
+
+    @Test
+    void testProcesar_VentaYaConfirmadaPorSincronizacion_DescartaSinLlamarACatedra() {
+        // Given
+        venta.setConfirmadaCatedra(true);
+        when(ventaRepository.findByIdParaConfirmacion(100L)).thenReturn(Optional.of(venta));
+        when(outboxRepository.findByVentaId(100L)).thenReturn(Optional.of(registro(0)));
+
+        // When
+        outboxService.procesar(100L);
+
+        // Then
+        verify(outboxRepository).deleteByVentaId(100L);
+        verify(estadisticasService).registrarDescartada(1L);
+        verify(ocupacionService).registrarVendidos(eq(venta.getEvento()), anyList());
+        verify(estadisticasService, never()).registrarConfirmada(anyLong(), anyInt(), any());
+        verifyNoInteractions(catedraApiClient);
+    }
+
+    @Test
+    void testProcesar_FalloConReintentosDisponibles_ReprogramaDentroDelBackoff() {
+        // Given
+        OutboxConfirmacionVenta registro = registro(1);
+        prepararFallo(registro);
+        LocalDateTime antes = LocalDateTime.now();
+
+        // When
+        outboxService.procesar(100L);
+
+        // Then
+        // Segundo intento: espera entre la mitad y el total de base * 2
+        assertEquals(2, registro.getIntentos());
+        assertNotNull(registro.getUltimoError());
+        assertFalse(registro.getProximoIntento().isBefore(antes.plus(1000, ChronoUnit.MILLIS)));
+        assertFalse(registro.getProximoIntento().isAfter(LocalDateTime.now().plus(2000, ChronoUnit.MILLIS)));
+        verify(outboxRepository).save(registro);
+        verify(outboxRepository, never()).deleteByVentaId(anyLong());
+        verifyNoInteractions(estadisticasService);
+    }
+
+    @Test
+    void testProcesar_BackoffAcotadoPorElMaximo() {
+        // Given
+        OutboxConfirmacionVenta registro = registro(MAX_INTENTOS - 2);
+        ReflectionTestUtils.setField(outboxService, "backoffBaseMs", BACKOFF_MAX_MS);
+        prepararFallo(registro);
+        LocalDateTime antes = LocalDateTime.now();
+
+        // When
+        outboxService.procesar(100L);
+
+        // Then
+        assertFalse(registro.getProximoIntento().isBefore(antes.plus(BACKOFF_MAX_MS / 2, ChronoUnit.MILLIS)));
+        assertFalse(registro.getProximoIntento().isAfter(LocalDateTime.now().plus(BACKOFF_MAX_MS, ChronoUnit.MILLIS)));
+    }
+
+    @Test
+    void testProcesar_AgotaIntentos_DescartaVentaYAjustaEstadisticas() {
+        // Given
+        OutboxConfirmacionVenta registro = registro(MAX_INTENTOS - 1);
+        prepararFallo(registro);
+
+        // When
+        outboxService.procesar(100L);
+
+        // Then
+        ArgumentCaptor<String> descripcion = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).deleteByVentaId(100L);
+        verify(ventaRepository).actualizarResultadoConfirmacion(eq(100L), eq(false), isNull(),
+                descripcion.capture(), eq(1));
+        assertTrue(descripcion.getValue().contains(MAX_INTENTOS + " intentos"));
+        verify(estadisticasService).registrarDescartada(1L);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    private OutboxConfirmacionVenta registro(int intentos) {
+        return OutboxConfirmacionVenta.builder()
+                .ventaId(100L)
+                .intentos(intentos)
+                .proximoIntento(LocalDateTime.now())
+                .build();
+    }
+
+    private void prepararFallo(OutboxConfirmacionVenta registro) {
+        when(ventaRepository.findByIdParaConfirmacion(100L)).thenReturn(Optional.of(venta));
+        when(outboxRepository.findByVentaId(100L)).thenReturn(Optional.of(registro));
+        when(catedraApiClient.realizarVenta(any())).thenReturn(CatedraRealizarVentaResponseDTO.builder()
+                .resultado(false)
+                .build());
+        lenient().when(ventaRepository.actualizarResultadoConfirmacion(anyLong(), any(), any(), anyString(), anyInt()))
+                .thenReturn(1);
+    }
+}
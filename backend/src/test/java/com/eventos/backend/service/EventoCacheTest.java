@@ -0,0 +1,100 @@
+package com.eventos.backend.infrastructure.adapter.output.external.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventoCacheTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @InjectMocks
+    private EventoCache cache;
+
+    private final Function<Object, String> comoTexto = String::valueOf;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxEntradas", 2);
+        ReflectionTestUtils.setField(cache, "ttlLocalMs", 60_000L);
+    }
+
+    @Test
+    void testObtener_SegundaLecturaDesdeMemoria() {
+        // Given
+        when(redisService.get("evento:1")).thenReturn("concierto");
+
+        // When
+        String primera = cache.obtener("evento:1", comoTexto);
+        String segunda = cache.obtener("evento:1", comoTexto);
+
+        // Then
+        assertEquals("concierto", primera);
+        assertEquals("concierto", segunda);
+        verify(redisService, times(1)).get("evento:1");
+    }
+
+    @Test
+    void testAplicarInvalidacion_DescartaMemoriaPorClaveYGeneracion() {
+        // Given
+        cache.guardar("evento:1", "a", "a", 10);
+        cache.guardar("eventos:list:active:0:20", "b", "b", 10);
+
+        // When
+        cache.aplicarInvalidacion("K|evento:1");
+        cache.aplicarInvalidacion("G|eventos:list:");
+
+        // Then: ambas lecturas vuelven a Redis
+        assertNull(cache.obtener("evento:1", comoTexto));
+        assertNull(cache.obtener("eventos:list:active:0:20", comoTexto));
+        verify(redisService).get("evento:1");
+        verify(redisService).get("eventos:list:active:0:20");
+    }
+
+    @Test
+    void testNuevaGeneracion_CambiaLasClavesDeLaFamilia() {
+        // Given
+        when(redisService.get("eventos:cache:generacion:eventos:list:")).thenReturn(null, 1L);
+        String antes = cache.claveConGeneracion("eventos:list:", "active:0:20");
+
+        // When
+        cache.nuevaGeneracion("eventos:list:");
+        String despues = cache.claveConGeneracion("eventos:list:", "active:0:20");
+
+        // Then
+        assertEquals("eventos:list:g0:active:0:20", antes);
+        assertEquals("eventos:list:g1:active:0:20", despues);
+        verify(redisService).increment("eventos:cache:generacion:eventos:list:");
+        verify(redisService).publish(EventoCache.CANAL_INVALIDACION, "G|eventos:list:");
+    }
+
+    @Test
+    void testGuardar_RespetaMaximoDeEntradas() {
+        // Given
+        cache.guardar("evento:1", "a", "a", 10);
+        cache.guardar("evento:2", "b", "b", 10);
+
+        // When
+        cache.guardar("evento:3", "c", "c", 10);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        Map<String, ?> local = (Map<String, ?>) ReflectionTestUtils.getField(cache, "local");
+        assertEquals(2, local.size());
+        assertTrue(local.containsKey("evento:3"));
+        verify(redisService, times(3)).save(anyString(), any(), eq(10L), any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.eventos.backend.infrastructure.adapter.output.persistence.repository;
+
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.domain.model.TipoEvento;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EventoSpecificationsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 20, 0);
+
+    @Autowired
+    private EventoRepository eventoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TipoEvento concierto;
+    private TipoEvento teatro;
+
+    @BeforeEach
+    void setUp() {
+        concierto = TipoEvento.builder().nombre("Concierto").build();
+        teatro = TipoEvento.builder().nombre("Teatro").build();
+        entityManager.persist(concierto);
+        entityManager.persist(teatro);
+
+        guardarEvento("Rock en el Parque", concierto, BASE, true);
+        guardarEvento("Noche de Rock", concierto, BASE.plusDays(10), true);
+        guardarEvento("Rock 100% acústico", teatro, BASE.plusDays(5), true);
+        guardarEvento("Rock cancelado", concierto, BASE.plusDays(2), false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testBusquedaAvanzada_CombinaSoloLosFiltrosInformados() {
+        // When
+        Page<Evento> porTitulo = buscar("rock", null, null, null);
+        Page<Evento> porTituloYTipo = buscar("ROCK", concierto.getId(), null, null);
+        Page<Evento> porTipoYFechas = buscar(null, concierto.getId(), BASE.plusDays(1), BASE.plusDays(10));
+
+        // Then: los inactivos nunca aparecen y el orden es por fecha
+        assertEquals(3, porTitulo.getTotalElements());
+        assertEquals("Rock en el Parque", porTitulo.getContent().get(0).getTitulo());
+        assertEquals(2, porTituloYTipo.getTotalElements());
+        assertEquals(1, porTipoYFechas.getTotalElements());
+        assertEquals("Noche de Rock", porTipoYFechas.getContent().get(0).getTitulo());
+    }
+
+    @Test
+    void testBusquedaAvanzada_ComodinesDelTituloSonLiterales() {
+        // When
+        Page<Evento> resultado = buscar("100%", null, null, null);
+        Page<Evento> sinCoincidencias = buscar("_ock", null, null, null);
+
+        // Then
+        assertEquals(1, resultado.getTotalElements());
+        assertEquals(0, sinCoincidencias.getTotalElements());
+    }
+
+    private Page<Evento> buscar(String titulo, Long tipoEventoId, LocalDateTime desde, LocalDateTime hasta) {
+        return eventoRepository.findAll(
+                EventoSpecifications.busquedaAvanzada(titulo, tipoEventoId, desde, hasta),
+                PageRequest.of(0, 10, Sort.by("fecha").ascending()));
+    }
+
+    private void guardarEvento(String titulo, TipoEvento tipo, LocalDateTime fecha, boolean activo) {
+        entityManager.persist(Evento.builder()
+                .titulo(titulo)
+                .tipoEvento(tipo)
+                .fecha(fecha)
+                .filaAsientos(10)
+                .columnaAsientos(10)
+                .precioEntrada(BigDecimal.TEN)
+                .activo(activo)
+                .build());
+    }
+}
@@ -0,0 +1,107 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.dto.BloquearAsientosResponseDTO;
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private IdempotenciaService idempotenciaService;
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaService = new IdempotenciaService(redisService, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(idempotenciaService, "enCursoMs", 60000L);
+        ReflectionTestUtils.setField(idempotenciaService, "resultadoTtlMs", 60000L);
+        ReflectionTestUtils.setField(idempotenciaService, "esperaMaximaMs", 2000L);
+    }
+
+    @Test
+    void testEjecutar_ClaveNueva_EjecutaYGuardaResultado() {
+        // Given: la clave se reclama (el script devuelve nil)
+        when(redisService.executeScript(any(), anyList(), any(), any())).thenReturn(null);
+
+        // When
+        BloquearAsientosResponseDTO resultado = idempotenciaService.ejecutar("bloquear", "abc",
+                BloquearAsientosResponseDTO.class, this::bloquear);
+
+        // Then
+        assertTrue(resultado.getExitoso());
+        assertEquals(1, ejecuciones.get());
+        verify(redisService, times(2)).executeScript(any(), anyList(), any(), any());
+    }
+
+    @Test
+    void testEjecutar_Reintento_DevuelveResultadoOriginalSinEjecutar() {
+        // Given
+        when(redisService.executeScript(any(), anyList(), any(), any()))
+                .thenReturn("C|{\"exitoso\":true,\"mensaje\":\"Asientos bloqueados exitosamente\"}");
+
+        // When
+        BloquearAsientosResponseDTO resultado = idempotenciaService.ejecutar("bloquear", "abc",
+                BloquearAsientosResponseDTO.class, this::bloquear);
+
+        // Then
+        assertTrue(resultado.getExitoso());
+        assertEquals("Asientos bloqueados exitosamente", resultado.getMensaje());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void testEjecutar_Duplicado_EsperaLaEjecucionEnCurso() {
+        // Given: primero en curso, luego completado
+        when(redisService.executeScript(any(), anyList(), any(), any()))
+                .thenReturn("EN_CURSO", "EN_CURSO", "C|{\"exitoso\":false,\"mensaje\":\"ocupado\"}");
+
+        // When
+        BloquearAsientosResponseDTO resultado = idempotenciaService.ejecutar("bloquear", "abc",
+                BloquearAsientosResponseDTO.class, this::bloquear);
+
+        // Then
+        assertFalse(resultado.getExitoso());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void testEjecutar_Error_LiberaLaClave() {
+        // Given
+        when(redisService.executeScript(any(), anyList(), any(), any())).thenReturn(null);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.ejecutar("bloquear", "abc",
+                BloquearAsientosResponseDTO.class, () -> {
+                    throw new IllegalStateException("cátedra caída");
+                }));
+        verify(redisService).delete(anyString());
+    }
+
+    private BloquearAsientosResponseDTO bloquear() {
+        ejecuciones.incrementAndGet();
+        return BloquearAsientosResponseDTO.builder()
+                .exitoso(true)
+                .mensaje("Asientos bloqueados exitosamente")
+                .asientosBloqueados(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.eventos.backend.application.service;
+
+import com.eventos.backend.infrastructure.adapter.output.external.service.RedisService;
+import com.eventos.backend.infrastructure.adapter.output.persistence.repository.EventoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MapaAsientosVersionServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private EventoRepository eventoRepository;
+
+    @InjectMocks
+    private MapaAsientosVersionService versionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(versionService, "tamanioBuffer", 4);
+    }
+
+    @Test
+    void testObtenerCambiosDesde_DevuelveUltimoEstadoDeCadaAsiento() {
+        // Given: del más nuevo al más viejo
+        when(redisService.executeScript(any(), anyList())).thenReturn(List.of(
+                "13", "13|1|1|LIBRE", "12|2|2|VENDIDO", "11|1|1|BLOQUEADO"));
+
+        // When
+        MapaAsientosVersionService.CambiosDesdeVersion cambios = versionService.obtenerCambiosDesde(1L, 10L);
+
+        // Then
+        assertNotNull(cambios);
+        assertEquals(13, cambios.getVersion());
+        assertEquals(2, cambios.getCambios().size());
+        assertEquals("LIBRE", cambios.getCambios().get(0).getEstado());
+        assertEquals("VENDIDO", cambios.getCambios().get(1).getEstado());
+    }
+
+    @Test
+    void testObtenerCambiosDesde_VersionFueraDelBuffer_DevuelveNull() {
+        // Given: buffer lleno, la versión 11 puede estar recortada
+        when(redisService.executeScript(any(), anyList())).thenReturn(List.of(
+                "14", "14|1|1|LIBRE", "13|1|2|LIBRE", "12|2|2|VENDIDO", "11|1|1|BLOQUEADO"));
+
+        // When / Then
+        assertNull(versionService.obtenerCambiosDesde(1L, 10L));
+        assertNotNull(versionService.obtenerCambiosDesde(1L, 11L));
+    }
+
+    @Test
+    void testObtenerCambiosDesde_VersionActual_SinCambios() {
+        // Given
+        when(redisService.executeScript(any(), anyList())).thenReturn(List.of("20"));
+
+        // When
+        MapaAsientosVersionService.CambiosDesdeVersion cambios = versionService.obtenerCambiosDesde(1L, 20L);
+
+        // Then
+        assertNotNull(cambios);
+        assertTrue(cambios.getCambios().isEmpty());
+        assertNull(versionService.obtenerCambiosDesde(1L, 19L));
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventos.backend.infrastructure.adapter.output.external.service;
+
+import com.eventos.backend.dto.proxy.ProxyMapaAsientosResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProxyMapaAsientosCacheTest {
+
+    @Mock
+    private ProxyClient proxyClient;
+
+    @InjectMocks
+    private ProxyMapaAsientosCache cache;
+
+    private final ProxyMapaAsientosResponseDTO mapa = ProxyMapaAsientosResponseDTO.builder()
+            .eventoId(100L)
+            .asientos(Map.of("1:1", "VENDIDO"))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    void testObtenerMapaAsientos_MismaVersion_UsaCache() {
+        // Given
+        when(proxyClient.obtenerMapaAsientos(100L)).thenReturn(mapa);
+
+        // When
+        cache.obtenerMapaAsientos(100L, 5L);
+        cache.obtenerMapaAsientos(100L, 5L);
+        cache.obtenerMapaAsientos(100L, 6L);   // cambió la versión
+        cache.invalidar(100L);
+        cache.obtenerMapaAsientos(100L, 6L);   // invalidado por notificación
+
+        // Then
+        verify(proxyClient, times(3)).obtenerMapaAsientos(100L);
+    }
+
+    @Test
+    void testObtenerMapaAsientos_ConsultasConcurrentes_UnaSolaLlamada() throws Exception {
+        // Given
+        CountDownLatch llamadaEnCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(proxyClient.obtenerMapaAsientos(100L)).thenAnswer(invocation -> {
+            llamadaEnCurso.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return mapa;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // When
+            Future<ProxyMapaAsientosResponseDTO> primera = executor.submit(() -> cache.obtenerMapaAsientos(100L, 5L));
+            assertTrue(llamadaEnCurso.await(5, TimeUnit.SECONDS));
+            Future<ProxyMapaAsientosResponseDTO> segunda = executor.submit(() -> cache.obtenerMapaAsientos(100L, 5L));
+            Future<ProxyMapaAsientosResponseDTO> tercera = executor.submit(() -> cache.obtenerMapaAsientos(100L, 5L));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            // Then
+            assertSame(mapa, primera.get(5, TimeUnit.SECONDS));
+            assertSame(mapa, segunda.get(5, TimeUnit.SECONDS));
+            assertSame(mapa, tercera.get(5, TimeUnit.SECONDS));
+            verify(proxyClient, times(1)).obtenerMapaAsientos(100L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.eventos.backend.infrastructure.adapter.output.persistence.repository;
+
+import com.eventos.backend.domain.model.AsientoVenta;
+import com.eventos.backend.domain.model.Evento;
+import com.eventos.backend.domain.model.Venta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class VentaRepositoryBatchTest {
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Reservar los bloques de IDs de las secuencias antes de medir
+        // (en H2 la secuencia arranca en 1 y el primer bloque del optimizador pooled tiene un solo ID)
+        guardarVenta(1);
+        guardarVenta(1);
+    }
+
+    @Test
+    void testGuardarVenta_CuatroAsientos_CantidadFijaDeSentencias() {
+        // Given
+        statistics.clear();
+
+        // When
+        Venta venta = guardarVenta(4);
+
+        // Then
+        // Un INSERT en batch para la venta y otro para sus asientos
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getEntityInsertCount());
+        assertEquals(4, venta.getAsientos().size());
+        assertTrue(venta.getAsientos().stream().allMatch(a -> a.getId() != null));
+    }
+
+    @Test
+    void testGuardarVenta_SentenciasNoDependenDeLosAsientos() {
+        // Given
+        statistics.clear();
+        guardarVenta(1);
+        long conUnAsiento = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        // When
+        guardarVenta(4);
+
+        // Then
+        assertEquals(conUnAsiento, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testConfirmarLote_TotalesPorEventoDeLasNoConfirmadas() {
+        // Given
+        Evento evento = Evento.builder()
+                .titulo("Concierto")
+                .fecha(LocalDateTime.now().plusDays(1))
+                .filaAsientos(10)
+                .columnaAsientos(10)
+                .precioEntrada(BigDecimal.TEN)
+                .build();
+        entityManager.persist(evento);
+        guardarVentaDeEvento(evento, 100L, 3, false);
+        guardarVentaDeEvento(evento, 101L, 2, false);
+        guardarVentaDeEvento(evento, 102L, 1, true);
+
+        // When
+        List<Long> ids = ventaRepository.bloquearNoConfirmadasPorIdsExternos(List.of(100L, 101L, 102L));
+        List<VentaRepository.ConfirmacionesEvento> totales = ventaRepository.resumirPorEvento(ids);
+        int confirmadas = ventaRepository.confirmarPorIds(ids, "Sincronizado desde cátedra");
+
+        // Then
+        assertEquals(2, ids.size());
+        assertEquals(2, confirmadas);
+        assertEquals(1, totales.size());
+        assertEquals(evento.getId(), totales.get(0).getEventoId());
+        assertEquals(2L, totales.get(0).getVentas());
+        assertEquals(5L, totales.get(0).getAsientos());
+        assertEquals(0, new BigDecimal("50").compareTo(totales.get(0).getRecaudacion()));
+    }
+
+    private void guardarVentaDeEvento(Evento evento, Long idExterno, int asientos, boolean confirmada) {
+        Venta venta = guardarVenta(asientos);
+        venta.setEvento(evento);
+        venta.setIdExterno(idExterno);
+        venta.setConfirmadaCatedra(confirmada);
+        ventaRepository.save(venta);
+        entityManager.flush();
+    }
+
+    private Venta guardarVenta(int asientos) {
+        Venta venta = Venta.builder()
+                .precioTotal(BigDecimal.TEN.multiply(BigDecimal.valueOf(asientos)))
+                .resultado(false)
+                .build();
+        for (int i = 1; i <= asientos; i++) {
+            venta.addAsiento(AsientoVenta.builder()
+                    .fila(1)
+                    .columna(i)
+                    .nombrePersona("Persona " + i)
+                    .build());
+        }
+
+        Venta guardada = ventaRepository.save(venta);
+        entityManager.flush();
+        entityManager.clear();
+        return guardada;
+    }
+}
@@ -1,6 +1,8 @@
 package com.eventos.app.data.models
 
 import kotlinx.serialization.Serializable
+import kotlin.io.encoding.Base64
+import kotlin.io.encoding.ExperimentalEncodingApi
 
 /**
  * Estado de un asiento individual
@@ -31,6 +33,48 @@ data class MapaAsientos(
     val asientos: List<EstadoAsiento>
 )
 
+/**
+ * Mapa de asientos en formato compacto (GET /api/asientos/evento/{id}?formato=compacto)
+ *
+ * [estados] viene en base64 con 2 bits por asiento: el asiento i = (fila - 1) * columnas + (columna - 1)
+ * ocupa los bits (i % 4) * 2 del byte i / 4
+ */
+@Serializable
+data class MapaAsientosCompacto(
+    val eventoId: Long,
+    val totalFilas: Int,
+    val totalColumnas: Int,
+    val estados: String
+) {
+    @OptIn(ExperimentalEncodingApi::class)
+    fun toMapaAsientos(): MapaAsientos {
+        val bytes = Base64.decode(estados)
+        val codigos = arrayOf(
+            EstadoAsientoEnum.LIBRE,
+            EstadoAsientoEnum.BLOQUEADO,
+            EstadoAsientoEnum.OCUPADO,
+            EstadoAsientoEnum.SELECCIONADO
+        )
+        val asientos = ArrayList<EstadoAsiento>(totalFilas * totalColumnas)
+        for (i in 0 until totalFilas * totalColumnas) {
+            val codigo = (bytes[i shr 2].toInt() shr ((i and 3) * 2)) and 0b11
+            asientos.add(
+                EstadoAsiento(
+                    fila = i / totalColumnas + 1,
+                    columna = i % totalColumnas + 1,
+                    estado = codigos[codigo]
+                )
+            )
+        }
+        return MapaAsientos(
+            eventoId = eventoId,
+            filas = totalFilas,
+            columnas = totalColumnas,
+            asientos = asientos
+        )
+    }
+}
+
 /**
  * Request para bloquear asientos
  */
@@ -3,6 +3,7 @@ package com.eventos.app.data.repository
 import com.eventos.app.data.models.BloquearAsientosRequest
 import com.eventos.app.data.models.BloquearAsientosResponse
 import com.eventos.app.data.models.MapaAsientos
+import com.eventos.app.data.models.MapaAsientosCompacto
 import com.eventos.app.data.remote.ApiClient
 import io.ktor.client.call.*
 import io.ktor.client.request.*
@@ -14,9 +15,11 @@ class AsientoRepository {
     
     suspend fun getMapaAsientos(eventoId: Long): Result<MapaAsientos> {
         return try {
-            val response = client.get("/api/asientos/$eventoId/mapa")
-            val mapa: MapaAsientos = response.body()
-            Result.success(mapa)
+            val response = client.get("/api/asientos/evento/$eventoId") {
+                parameter("formato", "compacto")
+            }
+            val mapa: MapaAsientosCompacto = response.body()
+            Result.success(mapa.toMapaAsientos())
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -2,6 +2,7 @@ package com.eventos.proxy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicación principal del servicio Proxy
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * facilitando la comunicación con los servicios externos.
  */
 @SpringBootApplication
+@EnableScheduling
 public class ProxyApplication {
 
     public static void main(String[] args) {
@@ -1,7 +1,12 @@
 package com.eventos.proxy.controller;
 
+import com.eventos.proxy.dto.AsientoDTO;
+import com.eventos.proxy.dto.AsientoEstadoDTO;
 import com.eventos.proxy.dto.EstadoAsientoResponseDTO;
+import com.eventos.proxy.dto.EstadoAsientosBatchRequestDTO;
+import com.eventos.proxy.dto.EstadoAsientosBatchResponseDTO;
 import com.eventos.proxy.dto.MapaAsientosResponseDTO;
+import com.eventos.proxy.service.AsientoEstadoReplicaService;
 import com.eventos.proxy.service.CatedraRedisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,8 +14,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Controller para consultar el estado de asientos en tiempo real
@@ -26,11 +33,14 @@ import java.util.stream.Collectors;
 public class AsientoEstadoController {
 
     private final CatedraRedisService catedraRedisService;
+    private final AsientoEstadoReplicaService replicaService;
 
     /**
      * GET /api/asientos/estado/{eventoId}/{fila}/{columna}
      * 
-     * Consulta el estado actual de un asiento específico en Redis de cátedra
+     * Consulta el estado actual de un asiento específico
+     * Se responde desde la réplica en memoria; si el evento no usa el hash de asientos
+     * se consulta Redis de cátedra
      * 
      * @param eventoId ID del evento
      * @param fila Fila del asiento
@@ -46,7 +56,10 @@ public class AsientoEstadoController {
         log.info("GET /api/asientos/estado/{}/{}/{} - Consultando estado de asiento", 
                 eventoId, fila, columna);
         
-        String estado = catedraRedisService.getEstadoAsiento(eventoId, fila, columna);
+        String estado = replicaService.getEstadoAsiento(eventoId, fila, columna);
+        if (estado == null) {
+            estado = catedraRedisService.getEstadoAsiento(eventoId, fila, columna);
+        }
         
         if (estado == null) {
             log.warn("No se pudo obtener estado del asiento {}:{} evento {}", 
@@ -65,11 +78,59 @@ public class AsientoEstadoController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * POST /api/asientos/estado/batch
+     * 
+     * Consulta el estado actual de varios asientos de un evento en una sola petición.
+     * Pensado para verificaciones de checkout y bloqueo, que antes requerían
+     * una llamada por asiento.
+     * 
+     * @param request ID del evento y posiciones (fila, columna) a consultar
+     * @return Estado actual de cada asiento, en el orden solicitado
+     */
+    @PostMapping("/estado/batch")
+    public ResponseEntity<EstadoAsientosBatchResponseDTO> getEstadoAsientosBatch(
+            @RequestBody EstadoAsientosBatchRequestDTO request) {
+        
+        if (request.getEventoId() == null || request.getAsientos() == null || request.getAsientos().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        log.info("POST /api/asientos/estado/batch - Consultando {} asientos del evento {}", 
+                request.getAsientos().size(), request.getEventoId());
+        
+        List<String> estados = catedraRedisService.getEstadoAsientos(
+                request.getEventoId(), request.getAsientos());
+        
+        if (estados == null) {
+            log.warn("No se pudo obtener estado de los asientos del evento {}", request.getEventoId());
+            return ResponseEntity.status(503).build(); // Service Unavailable
+        }
+        
+        List<AsientoEstadoDTO> asientos = new ArrayList<>(estados.size());
+        for (int i = 0; i < estados.size(); i++) {
+            AsientoDTO asiento = request.getAsientos().get(i);
+            asientos.add(AsientoEstadoDTO.builder()
+                    .fila(asiento.getFila())
+                    .columna(asiento.getColumna())
+                    .estado(estados.get(i))
+                    .build());
+        }
+        
+        EstadoAsientosBatchResponseDTO response = EstadoAsientosBatchResponseDTO.builder()
+                .eventoId(request.getEventoId())
+                .asientos(asientos)
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * GET /api/asientos/mapa/{eventoId}
      * 
      * Obtiene el mapa completo de asientos de un evento con sus estados actuales
-     * consultando Redis de cátedra
+     * desde la réplica en memoria (el resumen se calcula en la misma pasada)
      * 
      * @param eventoId ID del evento
      * @return Mapa de asientos con sus estados
@@ -80,17 +141,24 @@ public class AsientoEstadoController {
         
         log.info("GET /api/asientos/mapa/{} - Consultando mapa de asientos", eventoId);
         
-        Map<Object, Object> asientosRaw = catedraRedisService.getEstadoAsientosEvento(eventoId);
+        AsientoEstadoReplicaService.SnapshotAsientos snapshot = replicaService.getMapa(eventoId);
         
-        // Convertir a Map<String, String>
-        Map<String, String> asientos = asientosRaw.entrySet().stream()
-                .collect(Collectors.toMap(
-                        e -> e.getKey().toString(),
-                        e -> e.getValue().toString()
-                ));
-        
-        // Obtener resumen por estado
-        Map<String, Long> resumen = catedraRedisService.contarAsientosPorEstado(eventoId);
+        Map<String, String> asientos;
+        Map<String, Long> resumen;
+        if (snapshot != null) {
+            asientos = snapshot.getAsientos();
+            resumen = snapshot.getResumen();
+        } else {
+            // Réplica no disponible: un único HGETALL, con el resumen calculado en la misma pasada
+            Map<Object, Object> asientosRaw = catedraRedisService.getEstadoAsientosEvento(eventoId);
+            asientos = new HashMap<>(asientosRaw.size() * 2);
+            resumen = new HashMap<>();
+            for (Map.Entry<Object, Object> entry : asientosRaw.entrySet()) {
+                String estado = entry.getValue().toString();
+                asientos.put(entry.getKey().toString(), estado);
+                resumen.merge(estado, 1L, Long::sum);
+            }
+        }
         
         MapaAsientosResponseDTO response = MapaAsientosResponseDTO.builder()
                 .eventoId(eventoId)
@@ -107,6 +175,8 @@ public class AsientoEstadoController {
      * GET /api/asientos/resumen/{eventoId}
      * 
      * Obtiene un resumen con el conteo de asientos por estado
+     * Se responde con los contadores de la réplica en memoria (O(1));
+     * si no está disponible, el conteo se hace dentro de Redis
      * 
      * @param eventoId ID del evento
      * @return Conteo de asientos por estado
@@ -117,7 +187,10 @@ public class AsientoEstadoController {
         
         log.info("GET /api/asientos/resumen/{} - Consultando resumen de asientos", eventoId);
         
-        Map<String, Long> resumen = catedraRedisService.contarAsientosPorEstado(eventoId);
+        Map<String, Long> resumen = replicaService.getResumen(eventoId);
+        if (resumen == null) {
+            resumen = catedraRedisService.contarAsientosPorEstado(eventoId);
+        }
         
         Map<String, Object> response = Map.of(
                 "eventoId", eventoId,
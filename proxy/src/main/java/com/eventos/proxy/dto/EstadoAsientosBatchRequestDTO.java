@@ -0,0 +1,20 @@
+package com.eventos.proxy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la petición de consulta de estado de varios asientos de un evento
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoAsientosBatchRequestDTO {
+    private Long eventoId;
+    private List<AsientoDTO> asientos;
+}
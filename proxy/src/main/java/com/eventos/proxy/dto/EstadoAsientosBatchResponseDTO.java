@@ -0,0 +1,22 @@
+package com.eventos.proxy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para respuesta de consulta de estado de varios asientos de un evento
+ * Los asientos se devuelven en el mismo orden en que fueron solicitados
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoAsientosBatchResponseDTO {
+    private Long eventoId;
+    private List<AsientoEstadoDTO> asientos;
+    private String timestamp;
+}
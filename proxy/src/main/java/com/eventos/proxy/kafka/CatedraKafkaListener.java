@@ -2,7 +2,9 @@ package com.eventos.proxy.kafka;
 
 import com.eventos.proxy.dto.kafka.CatedraAsientoNotificacionDTO;
 import com.eventos.proxy.dto.kafka.CatedraEventoNotificacionDTO;
+import com.eventos.proxy.service.AsientoEstadoReplicaService;
 import com.eventos.proxy.service.BackendNotificationService;
+import com.eventos.proxy.service.CatedraRedisService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,8 @@ import org.springframework.stereotype.Component;
 public class CatedraKafkaListener {
 
     private final BackendNotificationService backendNotificationService;
+    private final AsientoEstadoReplicaService replicaService;
+    private final CatedraRedisService catedraRedisService;
     private final ObjectMapper objectMapper;
 
     @Value("${catedra.kafka.topic}")
@@ -73,6 +77,9 @@ public class CatedraKafkaListener {
                 // Notificaciones de asientos
                 CatedraAsientoNotificacionDTO notificacion = 
                         objectMapper.readValue(message, CatedraAsientoNotificacionDTO.class);
+                // Mantener el registro de eventos con asientos sin recorrer el keyspace de Redis
+                // (solo los mensajes de asientos implican un hash de asientos en Redis)
+                catedraRedisService.registrarEvento(notificacion.getEventoId());
                 procesarNotificacionAsiento(notificacion);
             } else {
                 log.warn("Tipo de notificación desconocido: {}", tipo);
@@ -97,6 +104,13 @@ public class CatedraKafkaListener {
                 notificacion.getTipo(), notificacion.getEventoId());
         
         try {
+            // Un evento modificado o cancelado puede cambiar su grilla de asientos: recargarla en el próximo acceso
+            if (notificacion.getEventoId() != null
+                    && ("EVENTO_ACTUALIZADO".equals(notificacion.getTipo())
+                        || "EVENTO_CANCELADO".equals(notificacion.getTipo()))) {
+                replicaService.invalidar(notificacion.getEventoId());
+            }
+
             // Reenviar al backend
             backendNotificationService.notificarCambioEvento(notificacion);
             
@@ -118,6 +132,9 @@ public class CatedraKafkaListener {
                 notificacion.getFila(), notificacion.getColumna());
         
         try {
+            // Actualizar la réplica en memoria antes de reenviar
+            replicaService.aplicarCambio(notificacion);
+            
             // Reenviar al backend
             backendNotificationService.notificarCambioAsiento(notificacion);
             
@@ -0,0 +1,439 @@
+package com.eventos.proxy.service;
+
+import com.eventos.proxy.dto.kafka.CatedraAsientoNotificacionDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Réplica en memoria del estado de asientos de cada evento
+ *
+ * Evita ir al Redis de cátedra en cada lectura de mapa o de asiento:
+ * - Se carga con HGETALL sobre "evento:{eventoId}:asientos" en el primer acceso
+ * - Se actualiza en el lugar con los mensajes ASIENTO_* que llegan por Kafka
+ * - Se reconcilia periódicamente contra Redis para corregir mensajes perdidos
+ *
+ * Cada evento se guarda como una grilla densa de bytes (un código de estado por asiento),
+ * que crece si aparece un asiento fuera de las dimensiones conocidas, hasta un máximo configurado
+ * de filas y columnas: las posiciones fuera de ese rango se descartan.
+ *
+ * Ni la primera carga ni la recarga de la reconciliación toman el lock de la réplica durante
+ * el HGETALL: los cambios que llegan por Kafka mientras tanto se anotan y se vuelven a aplicar
+ * sobre la grilla leída antes de publicarla.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsientoEstadoReplicaService {
+
+    private final CatedraRedisService catedraRedisService;
+
+    @Value("${catedra.replica.inactividad-minutos:30}")
+    private long inactividadMinutos;
+
+    @Value("${catedra.replica.max-filas:1000}")
+    private int maxFilas;
+
+    @Value("${catedra.replica.max-columnas:1000}")
+    private int maxColumnas;
+
+    private final Map<Long, ReplicaEvento> replicas = new ConcurrentHashMap<>();
+
+    /**
+     * Réplicas en su primera carga, todavía sin publicar en {@link #replicas}: reciben los cambios
+     * de Kafka para no perder los que llegan entre el HGETALL y la publicación
+     */
+    private final Map<Long, Set<ReplicaEvento>> cargasEnCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Tabla de estados conocidos; el código 0 indica "sin registro en Redis"
+     */
+    private volatile String[] estados = {"", "LIBRE", "BLOQUEADO", "VENDIDO", "OCUPADO"};
+    private final Map<String, Byte> codigos = new ConcurrentHashMap<>(Map.of(
+            "LIBRE", (byte) 1, "BLOQUEADO", (byte) 2, "VENDIDO", (byte) 3, "OCUPADO", (byte) 4));
+
+    /**
+     * Obtiene una foto del mapa de asientos de un evento desde memoria,
+     * cargándolo desde Redis si es el primer acceso
+     *
+     * @param eventoId ID del evento
+     * @return Asientos con registro (fila:columna -> estado) y conteo por estado, o null si Redis falla
+     */
+    public SnapshotAsientos getMapa(Long eventoId) {
+        ReplicaEvento replica = obtenerOCargar(eventoId);
+        return replica != null ? replica.snapshot() : null;
+    }
+
+    /**
+     * Obtiene el conteo de asientos por estado desde los contadores de la réplica,
+     * que se mantienen con cada cambio (no recorre los asientos)
+     *
+     * @param eventoId ID del evento
+     * @return Conteo por estado o null si Redis falla
+     */
+    public Map<String, Long> getResumen(Long eventoId) {
+        ReplicaEvento replica = obtenerOCargar(eventoId);
+        return replica != null ? replica.resumen() : null;
+    }
+
+    /**
+     * Obtiene el estado de un asiento desde memoria
+     *
+     * @param eventoId ID del evento
+     * @param fila Fila del asiento
+     * @param columna Columna del asiento
+     * @return Estado del asiento, o null si la réplica no puede responder
+     *         (el evento no usa el hash o Redis no está disponible)
+     */
+    public String getEstadoAsiento(Long eventoId, int fila, int columna) {
+        ReplicaEvento replica = obtenerOCargar(eventoId);
+        if (replica == null) {
+            return null;
+        }
+        return replica.estado(fila, columna);
+    }
+
+    /**
+     * Aplica en la réplica un cambio de asiento recibido por Kafka
+     * Si el evento todavía no fue cargado se ignora (se leerá completo de Redis en su primer acceso),
+     * salvo que esa carga esté en curso: entonces se anota para repetirlo sobre lo leído
+     *
+     * @param notificacion Notificación de cambio de asiento
+     */
+    public void aplicarCambio(CatedraAsientoNotificacionDTO notificacion) {
+        if (notificacion.getEventoId() == null || notificacion.getFila() == null
+                || notificacion.getColumna() == null) {
+            return;
+        }
+
+        // Primero las cargas en curso: una réplica se publica antes de salir de ellas,
+        // así el cambio no se pierde si la carga termina entre ambas lecturas
+        Set<ReplicaEvento> enCurso = cargasEnCurso.get(notificacion.getEventoId());
+        ReplicaEvento replica = replicas.get(notificacion.getEventoId());
+        if (replica == null && (enCurso == null || enCurso.isEmpty())) {
+            return;
+        }
+
+        String estado = resolverEstado(notificacion);
+        if (estado == null) {
+            log.debug("Notificación de asiento sin estado reconocible: {}", notificacion.getTipo());
+            return;
+        }
+        if (!posicionValida(notificacion.getFila(), notificacion.getColumna())) {
+            log.warn("Notificación de asiento fuera de rango descartada: evento {} asiento {}:{}",
+                    notificacion.getEventoId(), notificacion.getFila(), notificacion.getColumna());
+            return;
+        }
+
+        byte codigo = codigo(estado);
+        if (enCurso != null) {
+            enCurso.forEach(pendiente -> pendiente.actualizar(notificacion.getFila(), notificacion.getColumna(), codigo));
+        }
+        if (replica != null) {
+            replica.actualizar(notificacion.getFila(), notificacion.getColumna(), codigo);
+        }
+        log.debug("Réplica evento {} actualizada: {}:{} -> {}", notificacion.getEventoId(),
+                notificacion.getFila(), notificacion.getColumna(), estado);
+    }
+
+    /**
+     * Reconciliación periódica de las réplicas contra Redis de cátedra
+     * Descarta las réplicas que no se consultaron en el período de inactividad
+     */
+    @Scheduled(fixedDelayString = "${catedra.replica.reconciliacion-ms:60000}")
+    public void reconciliar() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+
+        long limite = System.currentTimeMillis() - inactividadMinutos * 60_000L;
+        int reconciliadas = 0;
+
+        for (Map.Entry<Long, ReplicaEvento> entry : replicas.entrySet()) {
+            if (entry.getValue().getUltimoAcceso() < limite) {
+                replicas.remove(entry.getKey(), entry.getValue());
+                log.debug("Réplica evento {} descartada por inactividad", entry.getKey());
+                continue;
+            }
+
+            // Los cambios aplicados durante la recarga se repiten sobre la grilla nueva
+            ReplicaEvento replica = entry.getValue();
+            replica.iniciarRecarga();
+            ReplicaEvento recargada = cargar(entry.getKey());
+            if (recargada != null) {
+                replica.reemplazarCon(recargada);
+                reconciliadas++;
+            } else {
+                replica.cancelarRecarga();
+            }
+        }
+
+        log.debug("Reconciliación de réplicas completada: {} eventos", reconciliadas);
+    }
+
+    /**
+     * Descarta la réplica de un evento (se recargará en el próximo acceso)
+     * Se usa cuando cátedra informa que el evento cambió (por ejemplo, sus dimensiones)
+     */
+    public void invalidar(Long eventoId) {
+        replicas.remove(eventoId);
+    }
+
+    // ==================== MÉTODOS AUXILIARES ====================
+
+    private ReplicaEvento obtenerOCargar(Long eventoId) {
+        ReplicaEvento replica = replicas.get(eventoId);
+        if (replica != null) {
+            replica.tocar();
+            return replica;
+        }
+
+        // La carga se hace fuera del mapa para no bloquear otros eventos durante el HGETALL.
+        // Mientras dura, la réplica pendiente anota los cambios de Kafka para repetirlos encima
+        ReplicaEvento pendiente = new ReplicaEvento(false);
+        pendiente.iniciarRecarga();
+        cargasEnCurso.compute(eventoId, (id, pendientes) -> {
+            Set<ReplicaEvento> conjunto = pendientes != null ? pendientes : ConcurrentHashMap.newKeySet();
+            conjunto.add(pendiente);
+            return conjunto;
+        });
+
+        try {
+            ReplicaEvento cargada = cargar(eventoId);
+            if (cargada == null) {
+                return null;
+            }
+            pendiente.reemplazarCon(cargada);
+            ReplicaEvento existente = replicas.putIfAbsent(eventoId, pendiente);
+            return existente != null ? existente : pendiente;
+        } finally {
+            cargasEnCurso.computeIfPresent(eventoId, (id, pendientes) -> {
+                pendientes.remove(pendiente);
+                return pendientes.isEmpty() ? null : pendientes;
+            });
+        }
+    }
+
+    private ReplicaEvento cargar(Long eventoId) {
+        Map<Object, Object> asientos = catedraRedisService.getHashAsientosEvento(eventoId);
+        if (asientos == null) {
+            return null;
+        }
+
+        ReplicaEvento replica = new ReplicaEvento(!asientos.isEmpty());
+        for (Map.Entry<Object, Object> entry : asientos.entrySet()) {
+            int[] posicion = parsearPosicion(entry.getKey().toString());
+            if (posicion != null && posicionValida(posicion[0], posicion[1])) {
+                replica.actualizar(posicion[0], posicion[1], codigo(entry.getValue().toString()));
+            }
+        }
+
+        log.debug("Réplica evento {} cargada desde Redis: {} asientos", eventoId, asientos.size());
+        return replica;
+    }
+
+    private String resolverEstado(CatedraAsientoNotificacionDTO notificacion) {
+        if (notificacion.getNuevoEstado() != null && !notificacion.getNuevoEstado().isBlank()) {
+            return notificacion.getNuevoEstado();
+        }
+        if (notificacion.getTipo() == null) {
+            return null;
+        }
+        switch (notificacion.getTipo()) {
+            case "ASIENTO_BLOQUEADO":
+                return "BLOQUEADO";
+            case "ASIENTO_VENDIDO":
+                return "VENDIDO";
+            case "ASIENTO_LIBERADO":
+                return "LIBRE";
+            default:
+                return null;
+        }
+    }
+
+    private byte codigo(String estado) {
+        Byte codigo = codigos.get(estado);
+        if (codigo != null) {
+            return codigo;
+        }
+        synchronized (codigos) {
+            codigo = codigos.get(estado);
+            if (codigo == null) {
+                if (estados.length > Byte.MAX_VALUE) {
+                    log.warn("Demasiados estados de asiento distintos, ignorando: {}", estado);
+                    return 0;
+                }
+                String[] ampliados = Arrays.copyOf(estados, estados.length + 1);
+                codigo = (byte) estados.length;
+                ampliados[codigo] = estado;
+                estados = ampliados;
+                codigos.put(estado, codigo);
+            }
+            return codigo;
+        }
+    }
+
+    private String estadoDe(byte codigo) {
+        return estados[codigo];
+    }
+
+    private boolean posicionValida(int fila, int columna) {
+        return fila >= 1 && columna >= 1 && fila <= maxFilas && columna <= maxColumnas;
+    }
+
+    private static int[] parsearPosicion(String clave) {
+        int separador = clave.indexOf(':');
+        if (separador <= 0 || separador == clave.length() - 1) {
+            return null;
+        }
+        try {
+            int fila = Integer.parseInt(clave, 0, separador, 10);
+            int columna = Integer.parseInt(clave, separador + 1, clave.length(), 10);
+            return fila >= 1 && columna >= 1 ? new int[]{fila, columna} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Foto inmutable del mapa de asientos de un evento
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SnapshotAsientos {
+        private final Map<String, String> asientos;
+        private final Map<String, Long> resumen;
+    }
+
+    /**
+     * Estado de los asientos de un evento como grilla densa de códigos
+     */
+    private class ReplicaEvento {
+
+        private byte[] grilla = new byte[0];
+        private long[] conteos = new long[Byte.MAX_VALUE + 1];
+        private int filas;
+        private int columnas;
+        private boolean usaHash;
+
+        /**
+         * Cambios aplicados durante una recarga en curso (fila, columna, código), o null si no hay recarga
+         */
+        private List<int[]> cambiosDuranteRecarga;
+
+        @Getter
+        private volatile long ultimoAcceso = System.currentTimeMillis();
+
+        ReplicaEvento(boolean usaHash) {
+            this.usaHash = usaHash;
+        }
+
+        void tocar() {
+            ultimoAcceso = System.currentTimeMillis();
+        }
+
+        synchronized void actualizar(int fila, int columna, byte codigo) {
+            if (fila < 1 || columna < 1) {
+                return;
+            }
+            if (fila > filas || columna > columnas) {
+                crecer(Math.max(fila, filas), Math.max(columna, columnas));
+            }
+            int indice = (fila - 1) * columnas + (columna - 1);
+            conteos[grilla[indice]]--;
+            conteos[codigo]++;
+            grilla[indice] = codigo;
+            usaHash = true;
+            if (cambiosDuranteRecarga != null) {
+                cambiosDuranteRecarga.add(new int[]{fila, columna, codigo});
+            }
+        }
+
+        synchronized String estado(int fila, int columna) {
+            if (fila < 1 || columna < 1 || fila > filas || columna > columnas) {
+                return usaHash ? "LIBRE" : null;
+            }
+            byte codigo = grilla[(fila - 1) * columnas + (columna - 1)];
+            if (codigo == 0) {
+                return usaHash ? "LIBRE" : null;
+            }
+            return estadoDe(codigo);
+        }
+
+        synchronized SnapshotAsientos snapshot() {
+            Map<String, String> asientos = new LinkedHashMap<>();
+            for (int f = 1; f <= filas; f++) {
+                int base = (f - 1) * columnas;
+                for (int c = 1; c <= columnas; c++) {
+                    byte codigo = grilla[base + c - 1];
+                    if (codigo != 0) {
+                        asientos.put(f + ":" + c, estadoDe(codigo));
+                    }
+                }
+            }
+            return new SnapshotAsientos(asientos, resumen());
+        }
+
+        synchronized Map<String, Long> resumen() {
+            Map<String, Long> resumen = new HashMap<>();
+            // El código 0 (sin registro) no se informa, igual que en el mapa
+            for (int codigo = 1; codigo < conteos.length; codigo++) {
+                if (conteos[codigo] > 0) {
+                    resumen.put(estadoDe((byte) codigo), conteos[codigo]);
+                }
+            }
+            return resumen;
+        }
+
+        synchronized void iniciarRecarga() {
+            cambiosDuranteRecarga = new ArrayList<>();
+        }
+
+        synchronized void cancelarRecarga() {
+            cambiosDuranteRecarga = null;
+        }
+
+        /**
+         * Toma el estado de una réplica recargada y repite encima los cambios
+         * aplicados desde que empezó la recarga
+         */
+        synchronized void reemplazarCon(ReplicaEvento otra) {
+            synchronized (otra) {
+                this.grilla = otra.grilla;
+                this.conteos = otra.conteos;
+                this.filas = otra.filas;
+                this.columnas = otra.columnas;
+                this.usaHash = otra.usaHash;
+            }
+            List<int[]> cambios = cambiosDuranteRecarga;
+            cambiosDuranteRecarga = null;
+            if (cambios != null) {
+                for (int[] cambio : cambios) {
+                    actualizar(cambio[0], cambio[1], (byte) cambio[2]);
+                }
+            }
+        }
+
+        private void crecer(int nuevasFilas, int nuevasColumnas) {
+            byte[] nueva = new byte[nuevasFilas * nuevasColumnas];
+            for (int f = 0; f < filas; f++) {
+                System.arraycopy(grilla, f * columnas, nueva, f * nuevasColumnas, columnas);
+            }
+            grilla = nueva;
+            filas = nuevasFilas;
+            columnas = nuevasColumnas;
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package com.eventos.proxy.service;
 
+import com.eventos.proxy.dto.AsientoDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Servicio para consultar el estado de asientos en Redis de cátedra
@@ -26,9 +38,33 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class CatedraRedisService {
 
+    private static final int SCAN_COUNT = 500;
+
+    /**
+     * Agrupa HVALS por estado dentro de Redis y devuelve [estado, cantidad, estado, cantidad...]
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONTAR_POR_ESTADO = RedisScript.of(
+            "local conteo = {}\n" +
+            "for _, estado in ipairs(redis.call('HVALS', KEYS[1])) do\n" +
+            "  conteo[estado] = (conteo[estado] or 0) + 1\n" +
+            "end\n" +
+            "local resultado = {}\n" +
+            "for estado, cantidad in pairs(conteo) do\n" +
+            "  table.insert(resultado, estado)\n" +
+            "  table.insert(resultado, cantidad)\n" +
+            "end\n" +
+            "return resultado", List.class);
+
     @Qualifier("catedraRedisTemplate")
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * Registro de eventos con asientos, alimentado por Kafka (y por un SCAN inicial)
+     */
+    private final Set<Long> eventosConocidos = ConcurrentHashMap.newKeySet();
+    private volatile boolean registroInicializado;
+
     /**
      * Obtiene el estado de un asiento específico
      * 
@@ -69,6 +105,71 @@ public class CatedraRedisService {
         }
     }
 
+    /**
+     * Obtiene el estado de varios asientos de un evento en un solo round trip
+     * 
+     * Resuelve todas las posiciones con un único HMGET sobre el hash del evento.
+     * Las posiciones que no están en el hash se buscan en sus keys individuales
+     * con un pipeline, de modo que el fallback tampoco agrega un round trip por asiento.
+     * 
+     * @param eventoId ID del evento
+     * @param asientos Posiciones de los asientos a consultar
+     * @return Estados en el mismo orden que las posiciones solicitadas o null si Redis falla
+     */
+    public List<String> getEstadoAsientos(Long eventoId, List<AsientoDTO> asientos) {
+        try {
+            String hashKey = String.format("evento:%d:asientos", eventoId);
+            List<Object> fields = new ArrayList<>(asientos.size());
+            for (AsientoDTO asiento : asientos) {
+                fields.add(String.format("%d:%d", asiento.getFila(), asiento.getColumna()));
+            }
+            
+            List<Object> valoresHash = redisTemplate.opsForHash().multiGet(hashKey, fields);
+            
+            List<String> estados = new ArrayList<>(asientos.size());
+            List<Integer> faltantes = new ArrayList<>();
+            for (int i = 0; i < asientos.size(); i++) {
+                Object valor = valoresHash != null ? valoresHash.get(i) : null;
+                estados.add(valor != null ? valor.toString() : null);
+                if (valor == null) {
+                    faltantes.add(i);
+                }
+            }
+            
+            if (!faltantes.isEmpty()) {
+                // Fallback a keys individuales en un único pipeline
+                List<Object> valoresIndividuales = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                        for (Integer indice : faltantes) {
+                            AsientoDTO asiento = asientos.get(indice);
+                            ops.opsForValue().get(String.format("evento:%d:asiento:%d:%d",
+                                    eventoId, asiento.getFila(), asiento.getColumna()));
+                        }
+                        return null;
+                    }
+                });
+                
+                for (int i = 0; i < faltantes.size(); i++) {
+                    Object valor = valoresIndividuales.get(i);
+                    // Por defecto LIBRE si no existe en ninguna estructura
+                    estados.set(faltantes.get(i), valor != null ? valor.toString() : "LIBRE");
+                }
+            }
+            
+            log.debug("Estado de {} asientos evento {} obtenido ({} desde keys individuales)", 
+                    asientos.size(), eventoId, faltantes.size());
+            return estados;
+            
+        } catch (Exception e) {
+            log.error("Error al consultar estado de {} asientos evento {}: {}", 
+                    asientos.size(), eventoId, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Obtiene el estado de todos los asientos de un evento
      * 
@@ -76,6 +177,19 @@ public class CatedraRedisService {
      * @return Mapa con posición del asiento (fila:columna) y su estado
      */
     public Map<Object, Object> getEstadoAsientosEvento(Long eventoId) {
+        Map<Object, Object> asientos = getHashAsientosEvento(eventoId);
+        return asientos != null ? asientos : Map.of();
+    }
+
+    /**
+     * Obtiene el hash completo de asientos de un evento (HGETALL)
+     * A diferencia de {@link #getEstadoAsientosEvento(Long)}, distingue un evento sin asientos
+     * de un error de Redis, para que la réplica en memoria no se cargue vacía ante una falla
+     * 
+     * @param eventoId ID del evento
+     * @return Mapa con posición del asiento (fila:columna) y su estado, o null si Redis falla
+     */
+    public Map<Object, Object> getHashAsientosEvento(Long eventoId) {
         try {
             String hashKey = String.format("evento:%d:asientos", eventoId);
             Map<Object, Object> asientos = redisTemplate.opsForHash().entries(hashKey);
@@ -85,24 +199,125 @@ public class CatedraRedisService {
             
         } catch (Exception e) {
             log.error("Error al obtener asientos del evento {}: {}", eventoId, e.getMessage());
-            return Map.of();
+            return null;
         }
     }
 
     /**
-     * Obtiene la lista de eventos que tienen información en Redis
+     * Obtiene las keys de los eventos que tienen información en Redis
+     * 
+     * Se responde desde el registro de eventos conocidos, que se mantiene con los mensajes
+     * de Kafka. Solo la primera vez se recorre el keyspace, con SCAN (nunca KEYS, que bloquea
+     * el Redis compartido de cátedra mientras recorre todas las keys). Los eventos cuyo hash
+     * ya no existe (vencido o borrado por cátedra) se quitan del registro.
      * 
-     * @return Set de IDs de eventos
+     * @return Set de keys "evento:{eventoId}:asientos"
      */
     public Set<String> getEventosConAsientos() {
+        if (!registroInicializado) {
+            inicializarRegistroEventos();
+        }
+        
+        List<Long> eventoIds = new ArrayList<>(eventosConocidos);
+        List<String> candidatas = new ArrayList<>(eventoIds.size());
+        for (Long eventoId : eventoIds) {
+            candidatas.add(String.format("evento:%d:asientos", eventoId));
+        }
+        
+        List<Object> existentes;
         try {
-            Set<String> keys = redisTemplate.keys("evento:*:asientos");
-            log.debug("Encontrados {} eventos con asientos en Redis", 
-                    keys != null ? keys.size() : 0);
-            return keys != null ? keys : Set.of();
+            existentes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    candidatas.forEach(ops::hasKey);
+                    return null;
+                }
+            });
         } catch (Exception e) {
-            log.error("Error al obtener eventos con asientos: {}", e.getMessage());
-            return Set.of();
+            log.error("Error al verificar eventos con asientos: {}", e.getMessage());
+            return new HashSet<>(candidatas);
+        }
+        
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < candidatas.size(); i++) {
+            if (Boolean.TRUE.equals(existentes.get(i))) {
+                keys.add(candidatas.get(i));
+            } else {
+                eventosConocidos.remove(eventoIds.get(i));
+                log.debug("Evento {} sin hash de asientos, se quita del registro", eventoIds.get(i));
+            }
+        }
+        log.debug("{} eventos con asientos en el registro", keys.size());
+        return keys;
+    }
+
+    /**
+     * Registra un evento como conocido (llamado al recibir mensajes de asientos de Kafka de cátedra)
+     * 
+     * @param eventoId ID del evento
+     */
+    public void registrarEvento(Long eventoId) {
+        if (eventoId != null && eventosConocidos.add(eventoId)) {
+            log.debug("Evento {} agregado al registro de eventos con asientos", eventoId);
+        }
+    }
+
+    /**
+     * Recorre con SCAN los eventos que tienen hash de asientos en Redis, sin bloquear el servidor
+     * Los IDs se entregan a medida que se encuentran, sin armar la lista completa en memoria
+     * 
+     * @param consumidor Recibe el ID de cada evento encontrado
+     * @return Cantidad de eventos encontrados o -1 si Redis falla
+     */
+    public long escanearEventosConAsientos(Consumer<Long> consumidor) {
+        ScanOptions opciones = ScanOptions.scanOptions()
+                .match("evento:*:asientos")
+                .count(SCAN_COUNT)
+                .build();
+        
+        long encontrados = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(opciones)) {
+            while (cursor.hasNext()) {
+                Long eventoId = parsearEventoId(cursor.next());
+                if (eventoId != null) {
+                    consumidor.accept(eventoId);
+                    encontrados++;
+                }
+            }
+            return encontrados;
+        } catch (Exception e) {
+            log.error("Error al recorrer eventos con asientos: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Carga el registro de eventos con un único recorrido SCAN
+     */
+    private synchronized void inicializarRegistroEventos() {
+        if (registroInicializado) {
+            return;
+        }
+        long encontrados = escanearEventosConAsientos(eventosConocidos::add);
+        if (encontrados >= 0) {
+            registroInicializado = true;
+            log.info("Registro de eventos con asientos inicializado: {} eventos", encontrados);
+        }
+    }
+
+    private Long parsearEventoId(String key) {
+        // "evento:{eventoId}:asientos"
+        int inicio = key.indexOf(':');
+        int fin = key.lastIndexOf(':');
+        if (inicio < 0 || fin <= inicio) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key.substring(inicio + 1, fin));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
@@ -125,19 +340,25 @@ public class CatedraRedisService {
     /**
      * Cuenta los asientos en cada estado para un evento
      * 
+     * El conteo se hace dentro de Redis con un script Lua: solo viajan los totales
+     * por estado, no el hash completo de asientos.
+     * 
      * @param eventoId ID del evento
      * @return Mapa con conteos por estado
      */
+    @SuppressWarnings("rawtypes")
     public Map<String, Long> contarAsientosPorEstado(Long eventoId) {
         try {
-            Map<Object, Object> asientos = getEstadoAsientosEvento(eventoId);
+            String hashKey = String.format("evento:%d:asientos", eventoId);
+            List resultado = redisTemplate.execute(CONTAR_POR_ESTADO, List.of(hashKey));
             
-            return asientos.values().stream()
-                    .map(Object::toString)
-                    .collect(java.util.stream.Collectors.groupingBy(
-                            estado -> estado,
-                            java.util.stream.Collectors.counting()
-                    ));
+            Map<String, Long> conteos = new HashMap<>();
+            if (resultado != null) {
+                for (int i = 0; i + 1 < resultado.size(); i += 2) {
+                    conteos.put(resultado.get(i).toString(), Long.parseLong(resultado.get(i + 1).toString()));
+                }
+            }
+            return conteos;
         } catch (Exception e) {
             log.error("Error al contar asientos por estado evento {}: {}", 
                     eventoId, e.getMessage());
@@ -0,0 +1,137 @@
+package com.eventos.proxy.service;
+
+import com.eventos.proxy.dto.kafka.CatedraAsientoNotificacionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsientoEstadoReplicaServiceTest {
+
+    private static final Long EVENTO_ID = 1L;
+
+    @Mock
+    private CatedraRedisService catedraRedisService;
+
+    @InjectMocks
+    private AsientoEstadoReplicaService replicaService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(replicaService, "inactividadMinutos", 30L);
+        ReflectionTestUtils.setField(replicaService, "maxFilas", 10);
+        ReflectionTestUtils.setField(replicaService, "maxColumnas", 10);
+    }
+
+    @Test
+    void testAplicarCambio_ActualizaEstadoYContadores() {
+        // Given
+        when(catedraRedisService.getHashAsientosEvento(EVENTO_ID))
+                .thenReturn(hash("1:1", "LIBRE", "1:2", "BLOQUEADO", "2:1", "BLOQUEADO"));
+        assertEquals(Map.of("LIBRE", 1L, "BLOQUEADO", 2L), replicaService.getResumen(EVENTO_ID));
+
+        // When
+        replicaService.aplicarCambio(notificacion("ASIENTO_VENDIDO", 1, 2));
+        replicaService.aplicarCambio(notificacion("ASIENTO_LIBERADO", 2, 1));
+        replicaService.aplicarCambio(notificacion("ASIENTO_BLOQUEADO", 3, 3));
+
+        // Then: la grilla crece para el asiento nuevo y los contadores siguen a cada cambio
+        assertEquals("VENDIDO", replicaService.getEstadoAsiento(EVENTO_ID, 1, 2));
+        assertEquals("LIBRE", replicaService.getEstadoAsiento(EVENTO_ID, 2, 1));
+        assertEquals("BLOQUEADO", replicaService.getEstadoAsiento(EVENTO_ID, 3, 3));
+        assertEquals(Map.of("LIBRE", 2L, "VENDIDO", 1L, "BLOQUEADO", 1L), replicaService.getResumen(EVENTO_ID));
+        verify(catedraRedisService, times(1)).getHashAsientosEvento(EVENTO_ID);
+    }
+
+    @Test
+    void testAplicarCambio_FueraDeRango_SeDescarta() {
+        // Given
+        when(catedraRedisService.getHashAsientosEvento(EVENTO_ID)).thenReturn(hash("1:1", "LIBRE"));
+        replicaService.getResumen(EVENTO_ID);
+
+        // When
+        replicaService.aplicarCambio(notificacion("ASIENTO_VENDIDO", 11, 1));
+        replicaService.aplicarCambio(notificacion("ASIENTO_VENDIDO", Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+        // Then
+        assertEquals(Map.of("LIBRE", 1L), replicaService.getResumen(EVENTO_ID));
+        assertEquals(1, replicaService.getMapa(EVENTO_ID).getAsientos().size());
+    }
+
+    @Test
+    void testPrimeraCarga_RepiteCambiosRecibidosDuranteElHgetall() {
+        // Given: la lectura de Redis es anterior a una venta que llega por Kafka antes de publicar la réplica
+        when(catedraRedisService.getHashAsientosEvento(EVENTO_ID)).thenAnswer(invocation -> {
+            replicaService.aplicarCambio(notificacion("ASIENTO_VENDIDO", 1, 2));
+            return hash("1:1", "LIBRE", "1:2", "LIBRE");
+        });
+
+        // When
+        Map<String, Long> resumen = replicaService.getResumen(EVENTO_ID);
+
+        // Then
+        assertEquals(Map.of("LIBRE", 1L, "VENDIDO", 1L), resumen);
+        assertEquals("VENDIDO", replicaService.getEstadoAsiento(EVENTO_ID, 1, 2));
+    }
+
+    @Test
+    void testReconciliar_CorrigeCambiosPerdidos() {
+        // Given: se perdió por Kafka la venta del asiento 1:1
+        when(catedraRedisService.getHashAsientosEvento(EVENTO_ID))
+                .thenReturn(hash("1:1", "LIBRE"), hash("1:1", "VENDIDO"));
+        replicaService.getResumen(EVENTO_ID);
+
+        // When
+        replicaService.reconciliar();
+
+        // Then
+        assertEquals("VENDIDO", replicaService.getEstadoAsiento(EVENTO_ID, 1, 1));
+        assertEquals(Map.of("VENDIDO", 1L), replicaService.getResumen(EVENTO_ID));
+    }
+
+    @Test
+    void testReconciliar_RepiteCambiosRecibidosDuranteLaRecarga() {
+        // Given: mientras se recarga, llega por Kafka un cambio que la lectura de Redis no incluye
+        when(catedraRedisService.getHashAsientosEvento(EVENTO_ID))
+                .thenReturn(hash("1:1", "LIBRE", "1:2", "LIBRE"))
+                .thenAnswer(invocation -> {
+                    replicaService.aplicarCambio(notificacion("ASIENTO_VENDIDO", 1, 2));
+                    return hash("1:1", "LIBRE", "1:2", "LIBRE");
+                });
+        replicaService.getResumen(EVENTO_ID);
+
+        // When
+        replicaService.reconciliar();
+
+        // Then
+        assertEquals("VENDIDO", replicaService.getEstadoAsiento(EVENTO_ID, 1, 2));
+        assertEquals(Map.of("LIBRE", 1L, "VENDIDO", 1L), replicaService.getResumen(EVENTO_ID));
+    }
+
+    private static CatedraAsientoNotificacionDTO notificacion(String tipo, int fila, int columna) {
+        return CatedraAsientoNotificacionDTO.builder()
+                .tipo(tipo)
+                .eventoId(EVENTO_ID)
+                .fila(fila)
+                .columna(columna)
+                .build();
+    }
+
+    private static Map<Object, Object> hash(String... claveValor) {
+        Map<Object, Object> hash = new HashMap<>();
+        for (int i = 0; i < claveValor.length; i += 2) {
+            hash.put(claveValor[i], claveValor[i + 1]);
+        }
+        return hash;
+    }
+}